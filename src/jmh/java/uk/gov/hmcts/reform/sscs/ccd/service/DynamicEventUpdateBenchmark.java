@@ -0,0 +1,107 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+
+/**
+ * Measures the CCD round trips of {@link UpdateCcdCaseService#updateCaseV2DynamicEvent} against a local
+ * CCD stand-in serving the callback fixtures in src/test/resources. Both flows read and bind the case once;
+ * the old flow then also binds the start event's case data to check lastModified, the new flow only reads
+ * the start event's metadata. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DynamicEventUpdateBenchmark {
+
+    @Param({"responseReceivedCallback.json", "updateFurtherEvidence.json"})
+    private String fixture;
+
+    private final SscsCaseDataConverter converter = new SscsCaseDataConverter();
+    private final SscsCcdConvertService sscsCcdConvertService = new SscsCcdConvertService(converter);
+    private final SscsCaseDetailsStreamingDecoder decoder = new SscsCaseDetailsStreamingDecoder(converter);
+    private final ObjectMapper ccdClientMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private HttpServer ccdStandIn;
+    private HttpClient httpClient;
+    private URI readUri;
+    private URI startEventUri;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] startEventBody;
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(fixture)) {
+            startEventBody = is.readAllBytes();
+        }
+        JsonNode caseDetails = new ObjectMapper().readTree(startEventBody).get("case_details");
+        byte[] readBody = new ObjectMapper().writeValueAsBytes(caseDetails);
+
+        ccdStandIn = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        ccdStandIn.createContext("/cases", exchange -> respond(exchange, readBody));
+        ccdStandIn.createContext("/token", exchange -> respond(exchange, startEventBody));
+        ccdStandIn.start();
+
+        String baseUrl = "http://localhost:" + ccdStandIn.getAddress().getPort();
+        readUri = URI.create(baseUrl + "/cases");
+        startEventUri = URI.create(baseUrl + "/token");
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ccdStandIn.stop(0);
+        httpClient.close();
+    }
+
+    @Benchmark
+    public boolean readThenBindStartEvent() throws IOException, InterruptedException {
+        SscsCaseDetails initial = decoder.decodeCaseDetails(get(readUri));
+        StartEventResponse startEventResponse = ccdClientMapper.readValue(get(startEventUri), StartEventResponse.class);
+        LocalDateTime latest = sscsCcdConvertService.getCaseDetails(startEventResponse).getLastModified();
+        return Objects.equals(initial.getLastModified(), latest);
+    }
+
+    @Benchmark
+    public boolean readThenStartEventMetadata() throws IOException, InterruptedException {
+        SscsCaseDetails initial = decoder.decodeCaseDetails(get(readUri));
+        LocalDateTime latest = decoder.decodeStartEventMetadata(get(startEventUri)).getCaseDetails().getLastModified();
+        return Objects.equals(initial.getLastModified(), latest);
+    }
+
+    private InputStream get(URI uri) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofInputStream()).body();
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
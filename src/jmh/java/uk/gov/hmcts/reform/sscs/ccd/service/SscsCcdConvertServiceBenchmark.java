@@ -0,0 +1,74 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+
+/**
+ * Compares the per-call ObjectMapper that {@link SscsCcdConvertService} used to build with the shared
+ * {@link SscsCaseDataConverter}, using the case data of the callback fixtures in src/test/resources.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SscsCcdConvertServiceBenchmark {
+
+    @Param({"responseReceivedCallback.json", "adminAppealWithdrawnCallback.json", "updateFurtherEvidence.json"})
+    private String fixture;
+
+    private final SscsCcdConvertService sscsCcdConvertService = new SscsCcdConvertService();
+
+    private Map<String, Object> dataMap;
+    private SscsCaseData caseData;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(fixture)) {
+            Map<String, Object> callback = new ObjectMapper().readValue(is, new TypeReference<>() {});
+            Map<String, Object> caseDetails = (Map<String, Object>) callback.get("case_details");
+            dataMap = (Map<String, Object>) caseDetails.get("case_data");
+        }
+        caseData = sscsCcdConvertService.getCaseData(dataMap);
+    }
+
+    @Benchmark
+    public SscsCaseData getCaseDataWithMapperPerCall() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
+        mapper.configure(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL, true);
+        mapper.findAndRegisterModules();
+        return mapper.convertValue(dataMap, SscsCaseData.class);
+    }
+
+    @Benchmark
+    public SscsCaseData getCaseDataWithSharedConverter() {
+        return sscsCcdConvertService.getCaseData(dataMap);
+    }
+
+    @Benchmark
+    public Map<String, Object> getCaseDataMapWithMapperPerCall() {
+        return new ObjectMapper().registerModule(new JavaTimeModule())
+                .convertValue(caseData, new TypeReference<>() {});
+    }
+
+    @Benchmark
+    public Map<String, Object> getCaseDataMapWithSharedConverter() {
+        return sscsCcdConvertService.getCaseDataMap(caseData);
+    }
+}
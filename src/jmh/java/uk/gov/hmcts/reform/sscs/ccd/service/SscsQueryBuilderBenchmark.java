@@ -0,0 +1,92 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares building the SSCS search queries with {@link SscsQueryBuilder}, which goes through the Elasticsearch
+ * server classes and {@code SearchSourceBuilder.toString()}, against {@link SscsQueries} writing JSON directly.
+ * The {@code build} benchmarks measure the steady state cost of one query; the {@code firstQuery} benchmarks
+ * run once in a fresh JVM and report how long the first query took and how many classes it loaded.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SscsQueryBuilderBenchmark {
+
+    private static final String CASE_REFERENCE = "SC001/19/00365";
+
+    private final StringBuilder buffer = new StringBuilder(512);
+
+    @Benchmark
+    public String buildWithElasticsearch() {
+        return SscsQueryBuilder.findCaseBySingleField("data.caseReference", CASE_REFERENCE).toString();
+    }
+
+    @Benchmark
+    public String buildWithCcdQuery() {
+        return SscsQueries.findCaseBySingleField("data.caseReference", CASE_REFERENCE).toJson();
+    }
+
+    @Benchmark
+    public int buildWithCcdQueryIntoReusedBuffer() {
+        buffer.setLength(0);
+        SscsQueries.findCaseByTyaNumberQuery("tya123abc").writeTo(buffer);
+        return buffer.length();
+    }
+
+    @Benchmark
+    public String buildTyaQueryWithElasticsearch() {
+        return SscsQueryBuilder.findCaseByTyaNumberQuery("tya123abc").toString();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(5)
+    public String firstQueryWithElasticsearch(LoadedClasses loadedClasses) {
+        long before = loadedClasses.classLoading.getTotalLoadedClassCount();
+        String query = SscsQueryBuilder.findCaseBySingleField("data.caseReference", CASE_REFERENCE).toString();
+        loadedClasses.classes = loadedClasses.classLoading.getTotalLoadedClassCount() - before;
+        return query;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(5)
+    public String firstQueryWithCcdQuery(LoadedClasses loadedClasses) {
+        long before = loadedClasses.classLoading.getTotalLoadedClassCount();
+        String query = SscsQueries.findCaseBySingleField("data.caseReference", CASE_REFERENCE).toJson();
+        loadedClasses.classes = loadedClasses.classLoading.getTotalLoadedClassCount() - before;
+        return query;
+    }
+
+    /**
+     * Reports the classes loaded by the first query as a secondary result of the {@code firstQuery} benchmarks.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LoadedClasses {
+
+        private final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+
+        public long classes;
+    }
+}
@@ -1,8 +1,18 @@
 package uk.gov.hmcts.reform.sscs.ccd.client;
 
+import feign.FeignException;
+import feign.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.ccd.client.CoreCaseDataApi;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
@@ -10,6 +20,10 @@ import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.SearchResult;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 import uk.gov.hmcts.reform.sscs.ccd.config.CcdRequestDetails;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.ccd.service.SscsCaseDetailsStreamingDecoder;
+import uk.gov.hmcts.reform.sscs.client.CoreCaseDataStreamingApi;
+import uk.gov.hmcts.reform.sscs.exception.CcdDeserializationException;
 import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
 
 @Service
@@ -17,27 +31,76 @@ import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
 public class CcdClient {
     private final CcdRequestDetails ccdRequestDetails;
     private final CoreCaseDataApi coreCaseDataApi;
+    private final CoreCaseDataStreamingApi coreCaseDataStreamingApi;
+    private final SscsCaseDetailsStreamingDecoder streamingDecoder;
+    private final boolean streamingDecodeEnabled;
+    private final CcdClientMetrics metrics;
 
-    @Autowired
     public CcdClient(CcdRequestDetails ccdRequestDetails,
                      CoreCaseDataApi coreCaseDataApi) {
+        this(ccdRequestDetails, coreCaseDataApi, null, null, false);
+    }
+
+    public CcdClient(CcdRequestDetails ccdRequestDetails,
+                     CoreCaseDataApi coreCaseDataApi,
+                     CoreCaseDataStreamingApi coreCaseDataStreamingApi,
+                     SscsCaseDetailsStreamingDecoder streamingDecoder,
+                     boolean streamingDecodeEnabled) {
+        this(ccdRequestDetails, coreCaseDataApi, coreCaseDataStreamingApi, streamingDecoder, streamingDecodeEnabled,
+                CcdClientMetrics.disabled());
+    }
+
+    /**
+     * The {@link CoreCaseDataStreamingApi} Feign client is only looked up when streaming decode is enabled, so
+     * it is not created for applications that leave streaming decode off.
+     */
+    @Autowired
+    public CcdClient(CcdRequestDetails ccdRequestDetails,
+                     CoreCaseDataApi coreCaseDataApi,
+                     ObjectProvider<CoreCaseDataStreamingApi> coreCaseDataStreamingApi,
+                     SscsCaseDetailsStreamingDecoder streamingDecoder,
+                     @Value("${core_case_data.streaming-decode.enabled:false}") boolean streamingDecodeEnabled,
+                     CcdClientMetrics metrics) {
+        this(ccdRequestDetails, coreCaseDataApi, streamingDecodeEnabled ? coreCaseDataStreamingApi.getObject() : null,
+                streamingDecoder, streamingDecodeEnabled, metrics);
+    }
+
+    public CcdClient(CcdRequestDetails ccdRequestDetails,
+                     CoreCaseDataApi coreCaseDataApi,
+                     CoreCaseDataStreamingApi coreCaseDataStreamingApi,
+                     SscsCaseDetailsStreamingDecoder streamingDecoder,
+                     boolean streamingDecodeEnabled,
+                     CcdClientMetrics metrics) {
         this.ccdRequestDetails = ccdRequestDetails;
         this.coreCaseDataApi = coreCaseDataApi;
+        this.coreCaseDataStreamingApi = coreCaseDataStreamingApi;
+        this.streamingDecoder = streamingDecoder;
+        this.streamingDecodeEnabled = streamingDecodeEnabled;
+        this.metrics = metrics;
+    }
+
+    /**
+     * When enabled, reads, searches and start events can be decoded straight from the response body into
+     * {@link SscsCaseDetails}, skipping the untyped case data map built by {@link CoreCaseDataApi}.
+     */
+    public boolean isStreamingDecodeEnabled() {
+        return streamingDecodeEnabled;
     }
 
     public StartEventResponse startCaseForCaseworker(IdamTokens idamTokens, String eventId) {
         log.info("Starting CCD case for caseworker");
-        return coreCaseDataApi.startForCaseworker(
+        return metrics.record("startCaseForCaseworker", eventId, () -> coreCaseDataApi.startForCaseworker(
                 idamTokens.getIdamOauth2Token(),
                 idamTokens.getServiceAuthorization(),
                 idamTokens.getUserId(),
                 ccdRequestDetails.getJurisdictionId(),
                 ccdRequestDetails.getCaseTypeId(),
-                eventId);
+                eventId));
     }
 
     public CaseDetails submitForCaseworker(IdamTokens idamTokens, CaseDataContent caseDataContent) {
-        return coreCaseDataApi.submitForCaseworker(
+        return metrics.record("submitForCaseworker", eventId(caseDataContent),
+            () -> coreCaseDataApi.submitForCaseworker(
                 idamTokens.getIdamOauth2Token(),
                 idamTokens.getServiceAuthorization(),
                 idamTokens.getUserId(),
@@ -45,24 +108,25 @@ public class CcdClient {
                 ccdRequestDetails.getCaseTypeId(),
                 true,
                 caseDataContent
-        );
+        ));
     }
 
     public StartEventResponse startEvent(IdamTokens idamTokens, Long caseId, String eventType) {
         log.info("Starting CCD event for caseworker");
 
-        return coreCaseDataApi.startEventForCaseWorker(
+        return metrics.record("startEvent", eventType, () -> coreCaseDataApi.startEventForCaseWorker(
                 idamTokens.getIdamOauth2Token(),
                 idamTokens.getServiceAuthorization(),
                 idamTokens.getUserId(),
                 ccdRequestDetails.getJurisdictionId(),
                 ccdRequestDetails.getCaseTypeId(),
                 caseId.toString(),
-                eventType);
+                eventType));
     }
 
     public CaseDetails submitEventForCaseworker(IdamTokens idamTokens, Long caseId, CaseDataContent caseDataContent) {
-        return coreCaseDataApi.submitEventForCaseWorker(
+        return metrics.record("submitEventForCaseworker", eventId(caseDataContent),
+            () -> coreCaseDataApi.submitEventForCaseWorker(
                 idamTokens.getIdamOauth2Token(),
                 idamTokens.getServiceAuthorization(),
                 idamTokens.getUserId(),
@@ -70,33 +134,137 @@ public class CcdClient {
                 ccdRequestDetails.getCaseTypeId(),
                 caseId.toString(),
                 true,
-                caseDataContent);
+                caseDataContent));
     }
 
     public SearchResult searchCases(IdamTokens idamTokens, String query) {
-        return coreCaseDataApi.searchCases(
+        SearchResult searchResult = metrics.record("searchCases", null, () -> coreCaseDataApi.searchCases(
                 idamTokens.getIdamOauth2Token(),
                 idamTokens.getServiceAuthorization(),
                 ccdRequestDetails.getCaseTypeId(),
-                query);
+                query));
+        if (searchResult != null && searchResult.getCases() != null) {
+            metrics.recordSearchResults("searchCases", searchResult.getCases().size());
+        }
+        return searchResult;
     }
 
     public CaseDetails readForCaseworker(IdamTokens idamTokens, Long caseId) {
-        return coreCaseDataApi.readForCaseWorker(
+        return metrics.record("readForCaseworker", null, () -> coreCaseDataApi.readForCaseWorker(
                 idamTokens.getIdamOauth2Token(),
                 idamTokens.getServiceAuthorization(),
                 idamTokens.getUserId(),
                 ccdRequestDetails.getJurisdictionId(),
                 ccdRequestDetails.getCaseTypeId(),
                 caseId.toString()
-        );
+        ));
     }
 
     public void setSupplementaryData(IdamTokens idamTokens, Long caseId, Map<String, Map<String, Map<String, Object>>> supplementaryData) {
-        coreCaseDataApi.submitSupplementaryData(
-                idamTokens.getIdamOauth2Token(),
-                idamTokens.getServiceAuthorization(),
-                caseId.toString(),
-                supplementaryData);
+        metrics.record("setSupplementaryData", null, () -> {
+            coreCaseDataApi.submitSupplementaryData(
+                    idamTokens.getIdamOauth2Token(),
+                    idamTokens.getServiceAuthorization(),
+                    caseId.toString(),
+                    supplementaryData);
+            return null;
+        });
+    }
+
+    public SscsCaseDetails readSscsCaseDetailsForCaseworker(IdamTokens idamTokens, Long caseId) {
+        return decode("readSscsCaseDetailsForCaseworker", null, () ->
+                coreCaseDataStreamingApi.readForCaseWorker(
+                        idamTokens.getIdamOauth2Token(),
+                        idamTokens.getServiceAuthorization(),
+                        idamTokens.getUserId(),
+                        ccdRequestDetails.getJurisdictionId(),
+                        ccdRequestDetails.getCaseTypeId(),
+                        caseId.toString()),
+                streamingDecoder::decodeCaseDetails);
+    }
+
+    public SscsCaseDetails startEventForSscsCase(IdamTokens idamTokens, Long caseId, String eventType) {
+        log.info("Starting CCD event for caseworker");
+
+        return decode("startEventForSscsCase", eventType, () ->
+                coreCaseDataStreamingApi.startEventForCaseWorker(
+                        idamTokens.getIdamOauth2Token(),
+                        idamTokens.getServiceAuthorization(),
+                        idamTokens.getUserId(),
+                        ccdRequestDetails.getJurisdictionId(),
+                        ccdRequestDetails.getCaseTypeId(),
+                        caseId.toString(),
+                        eventType),
+                streamingDecoder::decodeStartEvent);
+    }
+
+    /**
+     * Starts an event for callers that only need its token and the case metadata. With streaming decode on,
+     * the case data in the response is skipped rather than bound; otherwise this is {@link #startEvent}.
+     */
+    public StartEventResponse startEventMetadata(IdamTokens idamTokens, Long caseId, String eventType) {
+        if (!streamingDecodeEnabled) {
+            return startEvent(idamTokens, caseId, eventType);
+        }
+        log.info("Starting CCD event for caseworker");
+
+        return decode("startEventMetadata", eventType, () ->
+                coreCaseDataStreamingApi.startEventForCaseWorker(
+                        idamTokens.getIdamOauth2Token(),
+                        idamTokens.getServiceAuthorization(),
+                        idamTokens.getUserId(),
+                        ccdRequestDetails.getJurisdictionId(),
+                        ccdRequestDetails.getCaseTypeId(),
+                        caseId.toString(),
+                        eventType),
+                streamingDecoder::decodeStartEventMetadata);
+    }
+
+    public List<SscsCaseDetails> searchSscsCases(IdamTokens idamTokens, String query) {
+        return searchSscsCases(idamTokens, query, null);
+    }
+
+    /**
+     * Searches for the cases whose metadata passes the filter, binding case data only for those, or for every
+     * case when the filter is null.
+     */
+    public List<SscsCaseDetails> searchSscsCases(IdamTokens idamTokens, String query, Predicate<CaseDetails> metadataFilter) {
+        List<SscsCaseDetails> cases = decode("searchSscsCases", null, () ->
+                coreCaseDataStreamingApi.searchCases(
+                        idamTokens.getIdamOauth2Token(),
+                        idamTokens.getServiceAuthorization(),
+                        ccdRequestDetails.getCaseTypeId(),
+                        query),
+                body -> streamingDecoder.decodeSearchResult(body, metadataFilter));
+        if (cases != null) {
+            metrics.recordSearchResults("searchSscsCases", cases.size());
+        }
+        return cases;
+    }
+
+    private <T> T decode(String operation, String eventType, Supplier<Response> call,
+                         Function<InputStream, T> decoder) {
+        return metrics.record(operation, eventType, () -> {
+            try (Response response = call.get()) {
+                if (response.status() >= 300) {
+                    throw FeignException.errorStatus("CcdClient#" + operation, response);
+                }
+                if (response.body() == null) {
+                    return null;
+                }
+                metrics.recordResponseBytes(operation, response.body().length());
+                try (InputStream body = response.body().asInputStream()) {
+                    return decoder.apply(body);
+                }
+            } catch (IOException e) {
+                throw new CcdDeserializationException(e);
+            }
+        });
+    }
+
+    private static String eventId(CaseDataContent caseDataContent) {
+        return caseDataContent != null && caseDataContent.getEvent() != null
+                ? caseDataContent.getEvent().getId()
+                : null;
     }
 }
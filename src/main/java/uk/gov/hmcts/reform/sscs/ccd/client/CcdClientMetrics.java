@@ -0,0 +1,122 @@
+package uk.gov.hmcts.reform.sscs.ccd.client;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times the calls {@link CcdClient} makes to CCD per operation and event type, and counts their failures by
+ * HTTP status, the size of the responses it receives and the number of cases searches return. Meters are
+ * registered once and reused, and nothing is recorded when {@code ccd.client.metrics.enabled} is false.
+ */
+@Component
+public class CcdClientMetrics {
+
+    static final String REQUESTS_METRIC = "ccd.client.requests";
+    static final String ERRORS_METRIC = "ccd.client.errors";
+    static final String RESPONSE_BYTES_METRIC = "ccd.client.response.bytes";
+    static final String SEARCH_RESULTS_METRIC = "ccd.client.search.results";
+
+    private static final String NO_EVENT_TYPE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double[] percentiles;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> responseBytes = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> searchResults = new ConcurrentHashMap<>();
+
+    public CcdClientMetrics(MeterRegistry meterRegistry, boolean enabled, double... percentiles) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.percentiles = percentiles;
+    }
+
+    @Autowired
+    public CcdClientMetrics(ObjectProvider<MeterRegistry> meterRegistry,
+                            @Value("${ccd.client.metrics.enabled:true}") boolean enabled,
+                            @Value("${ccd.client.metrics.percentiles:0.5,0.95,0.99}") double[] percentiles) {
+        this(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), enabled, percentiles);
+    }
+
+    public static CcdClientMetrics disabled() {
+        return new CcdClientMetrics(new SimpleMeterRegistry(), false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public <T> T record(String operation, String eventType, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = call.get();
+            success = true;
+            return result;
+        } catch (RuntimeException e) {
+            errorCounter(operation, e).increment();
+            throw e;
+        } finally {
+            timer(new TimerKey(operation, eventType == null ? NO_EVENT_TYPE : eventType, success))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordResponseBytes(String operation, Integer bytes) {
+        if (enabled && bytes != null && bytes >= 0) {
+            responseBytes.computeIfAbsent(operation, op -> DistributionSummary.builder(RESPONSE_BYTES_METRIC)
+                    .description("Size of the CCD response bodies, where CCD gives their length")
+                    .baseUnit("bytes")
+                    .tag("operation", op)
+                    .register(meterRegistry))
+                    .record(bytes);
+        }
+    }
+
+    public void recordSearchResults(String operation, int count) {
+        if (enabled) {
+            searchResults.computeIfAbsent(operation, op -> DistributionSummary.builder(SEARCH_RESULTS_METRIC)
+                    .description("Number of cases returned by each CCD search")
+                    .tag("operation", op)
+                    .register(meterRegistry))
+                    .record(count);
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        return timers.computeIfAbsent(key, k -> Timer.builder(REQUESTS_METRIC)
+                .description("Time taken by calls to CCD")
+                .tag("operation", k.operation())
+                .tag("eventType", k.eventType())
+                .tag("outcome", k.success() ? "success" : "error")
+                .publishPercentiles(percentiles)
+                .register(meterRegistry));
+    }
+
+    private Counter errorCounter(String operation, RuntimeException e) {
+        String status = e instanceof FeignException feignException ? String.valueOf(feignException.status()) : "none";
+        return Counter.builder(ERRORS_METRIC)
+                .description("Failed calls to CCD by HTTP status")
+                .tag("operation", operation)
+                .tag("status", status)
+                .register(meterRegistry);
+    }
+
+    private record TimerKey(String operation, String eventType, boolean success) {
+    }
+}
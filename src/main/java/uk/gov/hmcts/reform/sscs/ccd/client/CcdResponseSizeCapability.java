@@ -0,0 +1,50 @@
+package uk.gov.hmcts.reform.sscs.ccd.client;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.ccd.client.CoreCaseDataApi;
+
+/**
+ * Records the size of the responses {@link CoreCaseDataApi} receives from CCD in
+ * {@link CcdClientMetrics#RESPONSE_BYTES_METRIC}, tagged with the name of the API method, so that sizes are
+ * known when streaming decode is off too. The size is taken from the response's {@code Content-Length}, so
+ * responses without one are not recorded, and the body is not read. Other Feign clients are left alone.
+ */
+@Component
+public class CcdResponseSizeCapability implements Capability {
+
+    private final CcdClientMetrics metrics;
+
+    @Autowired
+    public CcdResponseSizeCapability(CcdClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            Response response = client.execute(request, options);
+            if (metrics.isEnabled() && response.body() != null) {
+                String operation = coreCaseDataApiMethod(request);
+                if (operation != null) {
+                    metrics.recordResponseBytes(operation, response.body().length());
+                }
+            }
+            return response;
+        };
+    }
+
+    private static String coreCaseDataApiMethod(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        if (template == null || template.feignTarget() == null || template.methodMetadata() == null
+                || template.feignTarget().type() != CoreCaseDataApi.class) {
+            return null;
+        }
+        return template.methodMetadata().method().getName();
+    }
+}
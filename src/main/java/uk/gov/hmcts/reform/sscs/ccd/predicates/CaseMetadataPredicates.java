@@ -0,0 +1,76 @@
+package uk.gov.hmcts.reform.sscs.ccd.predicates;
+
+import static uk.gov.hmcts.reform.sscs.ccd.domain.State.DRAFT;
+import static uk.gov.hmcts.reform.sscs.ccd.domain.State.DRAFT_ARCHIVED;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+
+/**
+ * Predicates on the metadata of a raw CCD search hit. They only read fields that CCD returns alongside the
+ * case data, so searches can drop hits before paying to bind the case data into {@code SscsCaseData}.
+ */
+public final class CaseMetadataPredicates {
+
+    /**
+     * The states of cases that have not been submitted yet, which searches leave out whether they filter the
+     * hits here or in the query itself.
+     */
+    public static final List<String> DRAFT_STATES = List.of(DRAFT.getId(), DRAFT_ARCHIVED.getId());
+
+    private CaseMetadataPredicates() {
+    }
+
+    public static Predicate<CaseDetails> any() {
+        return caseDetails -> true;
+    }
+
+    /**
+     * Matches the hits that {@code AppealNumberGenerator.filterCaseNotDraftOrArchivedDraft} keeps.
+     */
+    public static Predicate<CaseDetails> notDraftOrArchivedDraft() {
+        return caseDetails -> caseDetails == null || !DRAFT_STATES.contains(caseDetails.getState());
+    }
+
+    public static Predicate<CaseDetails> inState(String... states) {
+        Set<String> stateIds = Set.of(states);
+        return caseDetails -> caseDetails != null && stateIds.contains(caseDetails.getState());
+    }
+
+    public static Predicate<CaseDetails> notInState(String... states) {
+        return inState(states).negate();
+    }
+
+    public static Predicate<CaseDetails> ofCaseType(String caseTypeId) {
+        return caseDetails -> caseDetails != null && caseTypeId.equals(caseDetails.getCaseTypeId());
+    }
+
+    public static Predicate<CaseDetails> modifiedAfter(LocalDateTime dateTime) {
+        return caseDetails -> caseDetails != null && caseDetails.getLastModified() != null
+                && caseDetails.getLastModified().isAfter(dateTime);
+    }
+
+    public static Predicate<CaseDetails> modifiedBefore(LocalDateTime dateTime) {
+        return caseDetails -> caseDetails != null && caseDetails.getLastModified() != null
+                && caseDetails.getLastModified().isBefore(dateTime);
+    }
+
+    /**
+     * Applies a metadata predicate to case details that are already bound, as they are when CCD responses
+     * are stream decoded.
+     */
+    public static Predicate<SscsCaseDetails> onSscsCaseDetails(Predicate<CaseDetails> metadataFilter) {
+        return sscsCaseDetails -> metadataFilter.test(sscsCaseDetails == null ? null : CaseDetails.builder()
+                .id(sscsCaseDetails.getId())
+                .jurisdiction(sscsCaseDetails.getJurisdiction())
+                .caseTypeId(sscsCaseDetails.getCaseTypeId())
+                .state(sscsCaseDetails.getState())
+                .createdDate(sscsCaseDetails.getCreatedDate())
+                .lastModified(sscsCaseDetails.getLastModified())
+                .build());
+    }
+}
@@ -0,0 +1,22 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+
+/**
+ * Outcome of reading one case as part of {@link ReadCcdCaseService#getByCaseIds}.
+ * A successful read of a case that CCD did not return has no case details.
+ */
+public record BatchReadResult(Long caseId, SscsCaseDetails caseDetails, RuntimeException failure) {
+
+    public static BatchReadResult success(Long caseId, SscsCaseDetails caseDetails) {
+        return new BatchReadResult(caseId, caseDetails, null);
+    }
+
+    public static BatchReadResult failure(Long caseId, RuntimeException failure) {
+        return new BatchReadResult(caseId, null, failure);
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+}
@@ -0,0 +1,166 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static uk.gov.hmcts.reform.sscs.ccd.service.BulkUpdateReport.Outcome.CONFLICTED;
+import static uk.gov.hmcts.reform.sscs.ccd.service.BulkUpdateReport.Outcome.FAILED;
+import static uk.gov.hmcts.reform.sscs.ccd.service.BulkUpdateReport.Outcome.SKIPPED;
+import static uk.gov.hmcts.reform.sscs.ccd.service.BulkUpdateReport.Outcome.SUCCEEDED;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.util.concurrent.RateLimiter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.ccd.service.BulkUpdateReport.CaseOutcome;
+import uk.gov.hmcts.reform.sscs.ccd.service.BulkUpdateReport.Outcome;
+import uk.gov.hmcts.reform.sscs.ccd.service.UpdateCcdCaseService.ConditionalUpdateResult;
+import uk.gov.hmcts.reform.sscs.ccd.service.UpdateCcdCaseService.UpdateResult;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+
+/**
+ * Applies the same mutator to many cases through {@link UpdateCcdCaseService}, running the start event,
+ * mutate and submit of each case concurrently, throttled to a rate and a cap on cases in flight.
+ * Each case is retried independently by {@link CcdUpdateExecutor}.
+ */
+@Slf4j
+@Service
+public class BulkCaseUpdateService {
+
+    static final String CHECKPOINT_WRITE_FAILED = "Not recorded in checkpoint: ";
+
+    private static final ObjectMapper REPORT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final UpdateCcdCaseService updateCcdCaseService;
+
+    @Value("${ccd.bulk-update.max-in-flight:8}")
+    private int maxInFlight = 8;
+
+    @Value("${ccd.bulk-update.permits-per-second:10}")
+    private double permitsPerSecond = 10;
+
+    @Autowired
+    public BulkCaseUpdateService(UpdateCcdCaseService updateCcdCaseService) {
+        this.updateCcdCaseService = updateCcdCaseService;
+    }
+
+    /**
+     * Updates every case with {@link UpdateCcdCaseService#updateCaseV2(Long, String, IdamTokens, Function)}.
+     *
+     * @param checkpointFile records the cases that were updated or skipped, and is read to skip them when
+     *                       a run is resumed; may be null
+     */
+    public BulkUpdateReport updateCases(Iterable<Long> caseIds, String eventType, IdamTokens idamTokens,
+                                        Function<SscsCaseDetails, UpdateResult> mutator, Path checkpointFile) {
+        return run(caseIds, eventType, checkpointFile, caseId -> {
+            updateCcdCaseService.updateCaseV2(caseId, eventType, idamTokens, mutator);
+            return true;
+        });
+    }
+
+    /**
+     * Updates every case with {@link UpdateCcdCaseService#updateCaseV2Conditional}. Cases the mutator does not
+     * commit are reported as skipped.
+     */
+    public BulkUpdateReport updateCasesConditional(Iterable<Long> caseIds, String eventType, IdamTokens idamTokens,
+                                                   Function<SscsCaseDetails, ConditionalUpdateResult> mutator,
+                                                   Path checkpointFile) {
+        return run(caseIds, eventType, checkpointFile,
+            caseId -> updateCcdCaseService.updateCaseV2Conditional(caseId, eventType, idamTokens, mutator).isPresent());
+    }
+
+    public void writeReport(BulkUpdateReport report, Path reportFile) {
+        try {
+            REPORT_MAPPER.writeValue(reportFile.toFile(), report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write bulk update report " + reportFile, e);
+        }
+    }
+
+    private BulkUpdateReport run(Iterable<Long> caseIds, String eventType, Path checkpointFile, Predicate<Long> update) {
+        log.info("Bulk updating cases with eventType {}, at most {} in flight and {} per second",
+                eventType, maxInFlight, permitsPerSecond);
+
+        RateLimiter rateLimiter = RateLimiter.create(permitsPerSecond);
+        Semaphore inFlight = new Semaphore(Math.max(1, maxInFlight));
+        Map<Long, Future<CaseOutcome>> futures = new LinkedHashMap<>();
+        Set<Long> seen = new HashSet<>();
+        int alreadyProcessed = 0;
+
+        try (BulkUpdateCheckpoint checkpoint = BulkUpdateCheckpoint.open(checkpointFile);
+             ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ccd-bulk-update-", 0).factory())) {
+            for (Long caseId : caseIds) {
+                if (caseId == null || !seen.add(caseId)) {
+                    continue;
+                }
+                if (checkpoint.isProcessed(caseId)) {
+                    alreadyProcessed++;
+                    continue;
+                }
+                inFlight.acquireUninterruptibly();
+                rateLimiter.acquire();
+                futures.put(caseId, executor.submit(() -> {
+                    try {
+                        return updateCase(caseId, eventType, update, checkpoint);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+
+            List<CaseOutcome> outcomes = futures.entrySet().stream()
+                    .map(entry -> awaitOutcome(entry.getKey(), entry.getValue()))
+                    .toList();
+            BulkUpdateReport report = BulkUpdateReport.of(eventType, alreadyProcessed, outcomes);
+            log.info("Bulk update with eventType {} finished: {}, {} already processed",
+                    eventType, report.totals(), alreadyProcessed);
+            return report;
+        }
+    }
+
+    private CaseOutcome updateCase(Long caseId, String eventType, Predicate<Long> update, BulkUpdateCheckpoint checkpoint) {
+        Outcome outcome;
+        try {
+            outcome = update.test(caseId) ? SUCCEEDED : SKIPPED;
+        } catch (RuntimeException e) {
+            Outcome failure = CcdUpdateExecutor.isConflict(e) ? CONFLICTED : FAILED;
+            log.error("Bulk update of caseId {} with eventType {} {}", caseId, eventType, failure, e);
+            return new CaseOutcome(caseId, failure, e.getMessage());
+        }
+        try {
+            checkpoint.markProcessed(caseId);
+            return new CaseOutcome(caseId, outcome, null);
+        } catch (RuntimeException e) {
+            log.warn("Bulk update of caseId {} with eventType {} {} but was not recorded in the checkpoint, "
+                    + "so a resumed run will process it again", caseId, eventType, outcome, e);
+            return new CaseOutcome(caseId, outcome, CHECKPOINT_WRITE_FAILED + e.getMessage());
+        }
+    }
+
+    private static CaseOutcome awaitOutcome(Long caseId, Future<CaseOutcome> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new CaseOutcome(caseId, FAILED, "Interrupted updating caseId " + caseId);
+        } catch (ExecutionException e) {
+            return new CaseOutcome(caseId, FAILED, e.getCause().getMessage());
+        }
+    }
+}
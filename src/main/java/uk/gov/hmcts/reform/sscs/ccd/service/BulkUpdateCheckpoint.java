@@ -0,0 +1,77 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Case ids that a bulk update has finished with, one per line. Ids are appended and flushed as each case
+ * completes, so a run that is stopped part way can be resumed with the same file.
+ */
+class BulkUpdateCheckpoint implements Closeable {
+
+    private final Set<Long> processed;
+    private final BufferedWriter writer;
+
+    private BulkUpdateCheckpoint(Set<Long> processed, BufferedWriter writer) {
+        this.processed = processed;
+        this.writer = writer;
+    }
+
+    static BulkUpdateCheckpoint open(Path file) {
+        if (file == null) {
+            return new BulkUpdateCheckpoint(Set.of(), null);
+        }
+        try {
+            Set<Long> processed = new HashSet<>();
+            if (Files.exists(file)) {
+                try (Stream<String> lines = Files.lines(file, UTF_8)) {
+                    lines.map(String::trim).filter(StringUtils::isNumeric).map(Long::valueOf).forEach(processed::add);
+                }
+            }
+            return new BulkUpdateCheckpoint(processed, Files.newBufferedWriter(file, UTF_8, CREATE, APPEND));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open bulk update checkpoint " + file, e);
+        }
+    }
+
+    boolean isProcessed(Long caseId) {
+        return processed.contains(caseId);
+    }
+
+    synchronized void markProcessed(Long caseId) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(caseId.toString());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot record caseId " + caseId + " in bulk update checkpoint", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close bulk update checkpoint", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a {@link BulkCaseUpdateService} run, in the order the case ids were supplied.
+ * Cases already recorded in the checkpoint file are not updated again and are only counted.
+ */
+public record BulkUpdateReport(String eventType, int alreadyProcessed, Map<Outcome, Long> totals,
+                               List<CaseOutcome> cases) {
+
+    public enum Outcome {
+        SUCCEEDED,
+        SKIPPED,
+        CONFLICTED,
+        FAILED
+    }
+
+    /**
+     * The outcome of one case. For a case that failed or conflicted, {@code error} says why; for one that
+     * succeeded or was skipped, it says if the case could not be recorded in the checkpoint file.
+     */
+    public record CaseOutcome(Long caseId, Outcome outcome, String error) { }
+
+    static BulkUpdateReport of(String eventType, int alreadyProcessed, List<CaseOutcome> cases) {
+        Map<Outcome, Long> totals = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            totals.put(outcome, 0L);
+        }
+        cases.forEach(caseOutcome -> totals.merge(caseOutcome.outcome(), 1L, Long::sum));
+        return new BulkUpdateReport(eventType, alreadyProcessed, totals, cases);
+    }
+
+    public long count(Outcome outcome) {
+        return totals.getOrDefault(outcome, 0L);
+    }
+}
@@ -0,0 +1,86 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+
+/**
+ * Delivers the submitted cases that changed since the last poll, so that a scheduled job can process the
+ * delta instead of searching every case again. Cases are read oldest first by {@code last_modified}, with
+ * the case id breaking ties, and handed to the consumer a page at a time. After each page the consumer
+ * accepts, the {@link CaseChangeWatermark} in the given file is moved on to its last case, so a poll that
+ * fails part way resumes after the last page delivered. A case is delivered at least once; a case changed
+ * again after it was delivered is delivered again.
+ *
+ * <p>Cases changed in the last {@code ccd.change-feed.index-lag-ms} are left for the next poll, as CCD indexes
+ * cases shortly after they are saved and a case indexed late would otherwise fall behind the watermark.
+ * Only one poller should use a watermark file at a time.
+ */
+@Slf4j
+@Service
+public class CaseChangeFeed {
+
+    private static final String ALL_CASES = "{\"query\":{\"match_all\":{}}}";
+
+    private final SearchCcdCaseService searchCcdCaseService;
+
+    @Value("${ccd.change-feed.page-size:100}")
+    private int pageSize = 100;
+
+    @Value("${ccd.change-feed.index-lag-ms:30000}")
+    private long indexLagMillis = 30000;
+
+    private Clock clock = Clock.systemUTC();
+
+    @Autowired
+    public CaseChangeFeed(SearchCcdCaseService searchCcdCaseService) {
+        this.searchCcdCaseService = searchCcdCaseService;
+    }
+
+    /**
+     * Delivers every submitted case changed since the watermark in the file, or every submitted case when there
+     * is no file yet.
+     *
+     * @return the number of cases delivered
+     */
+    public long poll(Path watermarkFile, IdamTokens idamTokens, Consumer<List<SscsCaseDetails>> consumer) {
+        return poll(ALL_CASES, watermarkFile, idamTokens, consumer);
+    }
+
+    /**
+     * Delivers the submitted cases matching the query that changed since the watermark in the file. The
+     * watermark only applies to the same query, so use a separate file for each query.
+     *
+     * @return the number of cases delivered
+     */
+    public long poll(String query, Path watermarkFile, IdamTokens idamTokens, Consumer<List<SscsCaseDetails>> consumer) {
+        CaseChangeWatermark watermark = CaseChangeWatermark.read(watermarkFile);
+        LocalDateTime modifiedBefore = LocalDateTime.now(clock).minus(Duration.ofMillis(indexLagMillis));
+        log.info("Polling for cases changed after {} and before {}", watermark, modifiedBefore);
+
+        long delivered = 0;
+        List<SscsCaseDetails> page;
+        do {
+            page = searchCcdCaseService.findCasesChangedAfter(query, watermark, modifiedBefore, pageSize, idamTokens);
+            if (page.isEmpty()) {
+                break;
+            }
+            consumer.accept(page);
+            watermark = CaseChangeWatermark.of(page.get(page.size() - 1));
+            watermark.write(watermarkFile);
+            delivered += page.size();
+        } while (page.size() >= pageSize);
+
+        log.info("Delivered {} changed cases, watermark is now {}", delivered, watermark);
+        return delivered;
+    }
+}
@@ -0,0 +1,73 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+
+/**
+ * The last case a change feed has delivered, by last modified time and then case id, which is the order
+ * {@link CaseChangeFeed} reads changes in. CCD holds {@code last_modified} in UTC and Elasticsearch to
+ * the millisecond, so the time is kept to the millisecond too.
+ */
+public record CaseChangeWatermark(LocalDateTime lastModified, long caseId) {
+
+    public CaseChangeWatermark {
+        lastModified = lastModified.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    public static CaseChangeWatermark of(SscsCaseDetails caseDetails) {
+        return new CaseChangeWatermark(caseDetails.getLastModified(), caseDetails.getId());
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Reads the watermark from a file written by {@link #write(Path)}, or returns null if there is no file yet.
+     */
+    static CaseChangeWatermark read(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        String content;
+        try {
+            content = Files.readString(file, UTF_8).trim();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read change feed watermark " + file, e);
+        }
+        String[] parts = content.split("\\s+");
+        if (parts.length != 2) {
+            throw new IllegalStateException("Change feed watermark " + file + " is not a last modified time and case id: " + content);
+        }
+        return new CaseChangeWatermark(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+    }
+
+    /**
+     * Replaces the file with this watermark. It is written to a temporary file alongside and moved into place,
+     * so a reader sees either the old watermark or the new one, never part of a write.
+     */
+    void write(Path file) {
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(temporaryFile, lastModified + " " + caseId + System.lineSeparator(), UTF_8);
+            try {
+                Files.move(temporaryFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write change feed watermark " + file, e);
+        }
+    }
+}
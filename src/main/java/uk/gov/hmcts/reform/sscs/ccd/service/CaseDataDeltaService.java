@@ -0,0 +1,113 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+
+/**
+ * Works out which top-level case data fields a mutator changed, so that an event submit can send only those
+ * rather than the whole of {@link SscsCaseData}. Fields the mutator cleared are sent as null so CCD clears them.
+ * Off unless {@code ccd.submit.delta.enabled} is set; event types listed in
+ * {@code ccd.submit.delta.full-payload-event-types} always submit the full case data. The size of each delta
+ * is recorded; the full case data is only serialized to record its size too when
+ * {@code ccd.submit.delta.measure-full-payload} is set.
+ */
+@Slf4j
+@Component
+public class CaseDataDeltaService {
+
+    static final String PAYLOAD_METRIC = "ccd.submit.payload.bytes";
+
+    private final SscsCaseDataConverter sscsCaseDataConverter;
+    private final MeterRegistry meterRegistry;
+    private final Map<PayloadKey, DistributionSummary> payloadSummaries = new ConcurrentHashMap<>();
+
+    @Value("${ccd.submit.delta.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ccd.submit.delta.full-payload-event-types:}")
+    private String[] fullPayloadEventTypes = new String[0];
+
+    @Value("${ccd.submit.delta.measure-full-payload:false}")
+    private boolean measureFullPayload;
+
+    public CaseDataDeltaService() {
+        this(new SscsCaseDataConverter(), new SimpleMeterRegistry());
+    }
+
+    public CaseDataDeltaService(SscsCaseDataConverter sscsCaseDataConverter, MeterRegistry meterRegistry) {
+        this.sscsCaseDataConverter = sscsCaseDataConverter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Autowired
+    public CaseDataDeltaService(SscsCaseDataConverter sscsCaseDataConverter, ObjectProvider<MeterRegistry> meterRegistry) {
+        this(sscsCaseDataConverter, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /**
+     * Snapshots the case data as it was when the event started.
+     *
+     * @return the snapshot, or null when the event type is submitted in full
+     */
+    public Map<String, Object> snapshot(String eventType, SscsCaseData caseData) {
+        if (!enabled || caseData == null || Arrays.asList(fullPayloadEventTypes).contains(eventType)) {
+            return null;
+        }
+        return sscsCaseDataConverter.toSubmittedDataMap(caseData);
+    }
+
+    /**
+     * The top-level fields of the mutated case data that differ from the snapshot.
+     */
+    public Map<String, Object> changedFields(Long caseId, String eventType, Map<String, Object> snapshot,
+                                             SscsCaseData caseData) {
+        Map<String, Object> current = sscsCaseDataConverter.toSubmittedDataMap(caseData);
+        Map<String, Object> changed = new LinkedHashMap<>();
+        current.forEach((field, value) -> {
+            if (!Objects.equals(snapshot.get(field), value)) {
+                changed.put(field, value);
+            }
+        });
+        snapshot.keySet().stream()
+                .filter(field -> !current.containsKey(field))
+                .forEach(field -> changed.put(field, null));
+
+        int deltaBytes = sscsCaseDataConverter.toSubmittedJson(changed).length;
+        payloadSummary(eventType, "delta").record(deltaBytes);
+        if (measureFullPayload) {
+            int fullBytes = sscsCaseDataConverter.toSubmittedJson(current).length;
+            payloadSummary(eventType, "full").record(fullBytes);
+            log.debug("Submitting {} changed fields for caseId {} and eventType {}: {} bytes instead of {}",
+                    changed.size(), caseId, eventType, deltaBytes, fullBytes);
+        } else {
+            log.debug("Submitting {} changed fields for caseId {} and eventType {}: {} bytes",
+                    changed.size(), caseId, eventType, deltaBytes);
+        }
+        return changed;
+    }
+
+    private DistributionSummary payloadSummary(String eventType, String payload) {
+        return payloadSummaries.computeIfAbsent(new PayloadKey(String.valueOf(eventType), payload),
+                key -> DistributionSummary.builder(PAYLOAD_METRIC)
+                        .description("Size of the case data submitted to CCD, and of the full case data it replaces")
+                        .baseUnit("bytes")
+                        .tag("eventType", key.eventType())
+                        .tag("payload", key.payload())
+                        .register(meterRegistry));
+    }
+
+    private record PayloadKey(String eventType, String payload) {
+    }
+}
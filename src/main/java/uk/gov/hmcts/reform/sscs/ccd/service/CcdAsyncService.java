@@ -0,0 +1,131 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+
+/**
+ * Runs {@link CcdService} operations in the background, so that a handler can make independent CCD calls at the
+ * same time and join their results. Operations run on virtual threads, or on a pool of
+ * {@code ccd.async.pool-size} threads when {@code ccd.async.virtual-threads} is false. The caller's MDC logging
+ * context is carried over to each operation, and its IDAM tokens are copied when the operation is submitted, so
+ * changing or refreshing them afterwards does not affect operations already under way.
+ */
+@Service
+public class CcdAsyncService implements DisposableBean {
+
+    private final CcdService ccdService;
+    private final ExecutorService executor;
+
+    @Autowired
+    public CcdAsyncService(CcdService ccdService,
+                           @Value("${ccd.async.virtual-threads:true}") boolean virtualThreads,
+                           @Value("${ccd.async.pool-size:16}") int poolSize) {
+        this(ccdService, virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ccd-async-", 0).factory())
+                : Executors.newFixedThreadPool(Math.max(1, poolSize)));
+    }
+
+    public CcdAsyncService(CcdService ccdService, ExecutorService executor) {
+        this.ccdService = ccdService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<List<SscsCaseDetails>> findCaseBy(String field, String value, IdamTokens idamTokens) {
+        return withTokens(idamTokens, tokens -> ccdService.findCaseBy(field, value, tokens));
+    }
+
+    public CompletableFuture<List<SscsCaseDetails>> findCaseByQuery(SearchSourceBuilder searchBuilder, IdamTokens idamTokens) {
+        return withTokens(idamTokens, tokens -> ccdService.findCaseByQuery(searchBuilder, tokens));
+    }
+
+    public CompletableFuture<SscsCaseDetails> findCaseByAppealNumber(String appealNumber, IdamTokens idamTokens) {
+        return withTokens(idamTokens, tokens -> ccdService.findCaseByAppealNumber(appealNumber, tokens));
+    }
+
+    public CompletableFuture<SscsCaseDetails> findCcdCaseByNinoAndBenefitTypeAndMrnDate(String nino, String benefitCode,
+                                                                                       String mrnDate, IdamTokens idamTokens) {
+        return withTokens(idamTokens, tokens -> ccdService.findCcdCaseByNinoAndBenefitTypeAndMrnDate(nino, benefitCode, mrnDate, tokens));
+    }
+
+    public CompletableFuture<SscsCaseDetails> getByCaseId(Long caseId, IdamTokens idamTokens) {
+        return withTokens(idamTokens, tokens -> ccdService.getByCaseId(caseId, tokens));
+    }
+
+    public CompletableFuture<Map<Long, BatchReadResult>> getByCaseIds(Collection<Long> caseIds, IdamTokens idamTokens) {
+        List<Long> ids = List.copyOf(caseIds);
+        return withTokens(idamTokens, tokens -> ccdService.getByCaseIds(ids, tokens));
+    }
+
+    public CompletableFuture<SscsCaseDetails> createCase(SscsCaseData caseData, String eventType, String summary,
+                                                         String description, IdamTokens idamTokens) {
+        return withTokens(idamTokens, tokens -> ccdService.createCase(caseData, eventType, summary, description, tokens));
+    }
+
+    public CompletableFuture<SscsCaseDetails> updateCase(SscsCaseData caseData, Long caseId, String eventType, String summary,
+                                                         String description, IdamTokens idamTokens) {
+        return withTokens(idamTokens, tokens -> ccdService.updateCase(caseData, caseId, eventType, summary, description, tokens));
+    }
+
+    public CompletableFuture<SscsCaseDetails> updateCase(SscsCaseData caseData, Long caseId, String eventId, String eventToken,
+                                                         String eventType, String summary, String description,
+                                                         IdamTokens idamTokens) {
+        return withTokens(idamTokens, tokens -> ccdService.updateCase(caseData, caseId, eventId, eventToken, eventType,
+                summary, description, tokens));
+    }
+
+    public CompletableFuture<SscsCaseDetails> updateCaseWithoutRetry(SscsCaseData caseData, Long caseId, String eventType,
+                                                                     String summary, String description, IdamTokens idamTokens) {
+        return withTokens(idamTokens, tokens -> ccdService.updateCaseWithoutRetry(caseData, caseId, eventType, summary,
+                description, tokens));
+    }
+
+    /**
+     * Runs any other blocking call, such as a judicial ref data lookup, in the same way as the CCD operations,
+     * so that it can be made alongside them.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> call) {
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            setMdcContext(mdcContext);
+            try {
+                return call.get();
+            } finally {
+                setMdcContext(previous);
+            }
+        }, executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> withTokens(IdamTokens idamTokens, Function<IdamTokens, T> operation) {
+        IdamTokens tokens = idamTokens != null ? idamTokens.copy() : null;
+        return supplyAsync(() -> operation.apply(tokens));
+    }
+
+    private static void setMdcContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the Elasticsearch queries sent to CCD as JSON, without the Elasticsearch server classes behind
+ * {@code SearchSourceBuilder}. Covers the bool, match, term, terms and range queries with size, sort and
+ * {@code _source} that SSCS searches use, for example
+ * {@code CcdQuery.search(CcdQuery.bool().must(CcdQuery.match("data.caseReference", ref).and())).size(1)}.
+ * Only options that have been set are written, leaving Elasticsearch to apply its own defaults to the rest.
+ */
+public final class CcdQuery {
+
+    private CcdQuery() {
+    }
+
+    public static Search search(Clause query) {
+        return new Search(query);
+    }
+
+    public static Bool bool() {
+        return new Bool();
+    }
+
+    public static Match match(String field, Object value) {
+        return new Match(field, value);
+    }
+
+    public static Clause term(String field, Object value) {
+        return out -> {
+            out.append("{\"term\":{");
+            writeString(out, field);
+            out.append(":{\"value\":");
+            writeValue(out, value);
+            out.append("}}}");
+        };
+    }
+
+    public static Clause terms(String field, Collection<?> values) {
+        List<?> copy = List.copyOf(values);
+        return out -> {
+            out.append("{\"terms\":{");
+            writeString(out, field);
+            out.append(":[");
+            for (int i = 0; i < copy.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                writeValue(out, copy.get(i));
+            }
+            out.append("]}}");
+        };
+    }
+
+    public static Range range(String field) {
+        return new Range(field);
+    }
+
+    /**
+     * A query clause that writes itself as JSON.
+     */
+    @FunctionalInterface
+    public interface Clause {
+
+        void writeTo(StringBuilder out);
+    }
+
+    public static final class Search {
+
+        private final Clause query;
+        private Integer size;
+        private Integer from;
+        private Integer trackTotalHitsUpTo;
+        private final Map<String, Boolean> sort = new LinkedHashMap<>();
+        private List<String> sourceIncludes;
+
+        private Search(Clause query) {
+            this.query = query;
+        }
+
+        public Search size(int size) {
+            this.size = size;
+            return this;
+        }
+
+        public Search from(int from) {
+            this.from = from;
+            return this;
+        }
+
+        /**
+         * Stops Elasticsearch counting hits for the total once it has found this many, which is all a lookup
+         * expecting one case needs. The response still has a total, as CCD expects, but it is only a lower bound.
+         */
+        public Search trackTotalHitsUpTo(int trackTotalHitsUpTo) {
+            this.trackTotalHitsUpTo = trackTotalHitsUpTo;
+            return this;
+        }
+
+        public Search sortAscending(String field) {
+            sort.put(field, true);
+            return this;
+        }
+
+        public Search sortDescending(String field) {
+            sort.put(field, false);
+            return this;
+        }
+
+        public Search source(Collection<String> includes) {
+            this.sourceIncludes = List.copyOf(includes);
+            return this;
+        }
+
+        /**
+         * Appends the query to the given buffer, so that a caller building many queries can reuse one.
+         */
+        public void writeTo(StringBuilder out) {
+            out.append('{');
+            boolean first = true;
+            if (from != null) {
+                out.append("\"from\":").append(from.intValue());
+                first = false;
+            }
+            if (size != null) {
+                out.append(first ? "" : ",").append("\"size\":").append(size.intValue());
+                first = false;
+            }
+            if (trackTotalHitsUpTo != null) {
+                out.append(first ? "" : ",").append("\"track_total_hits\":").append(trackTotalHitsUpTo.intValue());
+                first = false;
+            }
+            if (query != null) {
+                out.append(first ? "" : ",").append("\"query\":");
+                query.writeTo(out);
+                first = false;
+            }
+            if (sourceIncludes != null) {
+                out.append(first ? "" : ",").append("\"_source\":{\"includes\":");
+                writeStrings(out, sourceIncludes);
+                out.append('}');
+                first = false;
+            }
+            if (!sort.isEmpty()) {
+                out.append(first ? "" : ",").append("\"sort\":[");
+                boolean firstSort = true;
+                for (Map.Entry<String, Boolean> entry : sort.entrySet()) {
+                    out.append(firstSort ? "{" : ",{");
+                    writeString(out, entry.getKey());
+                    out.append(entry.getValue() ? ":{\"order\":\"asc\"}}" : ":{\"order\":\"desc\"}}");
+                    firstSort = false;
+                }
+                out.append(']');
+            }
+            out.append('}');
+        }
+
+        public String toJson() {
+            StringBuilder out = new StringBuilder(256);
+            writeTo(out);
+            return out.toString();
+        }
+
+        @Override
+        public String toString() {
+            return toJson();
+        }
+    }
+
+    public static final class Bool implements Clause {
+
+        private final List<Clause> must = new ArrayList<>();
+        private final List<Clause> filter = new ArrayList<>();
+        private final List<Clause> mustNot = new ArrayList<>();
+        private final List<Clause> should = new ArrayList<>();
+        private Integer minimumShouldMatch;
+
+        private Bool() {
+        }
+
+        public Bool must(Clause clause) {
+            must.add(clause);
+            return this;
+        }
+
+        public Bool filter(Clause clause) {
+            filter.add(clause);
+            return this;
+        }
+
+        public Bool mustNot(Clause clause) {
+            mustNot.add(clause);
+            return this;
+        }
+
+        public Bool should(Clause clause) {
+            should.add(clause);
+            return this;
+        }
+
+        public Bool minimumShouldMatch(int minimumShouldMatch) {
+            this.minimumShouldMatch = minimumShouldMatch;
+            return this;
+        }
+
+        @Override
+        public void writeTo(StringBuilder out) {
+            out.append("{\"bool\":{");
+            boolean first = writeClauses(out, "must", must, true);
+            first = writeClauses(out, "filter", filter, first);
+            first = writeClauses(out, "must_not", mustNot, first);
+            first = writeClauses(out, "should", should, first);
+            if (minimumShouldMatch != null) {
+                out.append(first ? "" : ",").append("\"minimum_should_match\":").append(minimumShouldMatch.intValue());
+            }
+            out.append("}}");
+        }
+
+        private static boolean writeClauses(StringBuilder out, String occur, List<Clause> clauses, boolean first) {
+            if (clauses.isEmpty()) {
+                return first;
+            }
+            out.append(first ? "\"" : ",\"").append(occur).append("\":[");
+            for (int i = 0; i < clauses.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                clauses.get(i).writeTo(out);
+            }
+            out.append(']');
+            return false;
+        }
+    }
+
+    public static final class Match implements Clause {
+
+        private final String field;
+        private final Object value;
+        private boolean and;
+
+        private Match(String field, Object value) {
+            this.field = field;
+            this.value = value;
+        }
+
+        /**
+         * Requires every term of the value to match, rather than any one of them.
+         */
+        public Match and() {
+            this.and = true;
+            return this;
+        }
+
+        @Override
+        public void writeTo(StringBuilder out) {
+            out.append("{\"match\":{");
+            writeString(out, field);
+            out.append(":{\"query\":");
+            writeValue(out, value);
+            if (and) {
+                out.append(",\"operator\":\"AND\"");
+            }
+            out.append("}}}");
+        }
+    }
+
+    public static final class Range implements Clause {
+
+        private final String field;
+        private final Map<String, Object> bounds = new LinkedHashMap<>();
+
+        private Range(String field) {
+            this.field = field;
+        }
+
+        public Range gt(Object value) {
+            bounds.put("gt", value);
+            return this;
+        }
+
+        public Range gte(Object value) {
+            bounds.put("gte", value);
+            return this;
+        }
+
+        public Range lt(Object value) {
+            bounds.put("lt", value);
+            return this;
+        }
+
+        public Range lte(Object value) {
+            bounds.put("lte", value);
+            return this;
+        }
+
+        @Override
+        public void writeTo(StringBuilder out) {
+            out.append("{\"range\":{");
+            writeString(out, field);
+            out.append(":{");
+            boolean first = true;
+            for (Map.Entry<String, Object> bound : bounds.entrySet()) {
+                out.append(first ? "\"" : ",\"").append(bound.getKey()).append("\":");
+                writeValue(out, bound.getValue());
+                first = false;
+            }
+            out.append("}}}");
+        }
+    }
+
+    private static void writeValue(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else {
+            writeString(out, value.toString());
+        }
+    }
+
+    private static void writeStrings(StringBuilder out, List<String> values) {
+        out.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            writeString(out, values.get(i));
+        }
+        out.append(']');
+    }
+
+    private static void writeString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,162 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates.DRAFT_STATES;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Rewrites the top level of an Elasticsearch query string before it is sent to CCD, leaving the query itself
+ * untouched other than to wrap it.
+ */
+public final class CcdSearchQueries {
+
+    /**
+     * Case metadata that CCD needs in {@code _source} to build case details, whatever case data is projected.
+     */
+    public static final List<String> CASE_METADATA_FIELDS = List.of(
+            "reference", "jurisdiction", "case_type_id", "state", "created_date", "last_modified", "security_classification");
+
+    private static final String CASE_DATA_PREFIX = "data.";
+
+    /**
+     * CCD indexes the case reference as text with a keyword sub-field, which is the one that can be sorted on.
+     * Values for {@code search_after} on it are the case id as a string.
+     */
+    private static final String CASE_REFERENCE_SORT_FIELD = "reference.keyword";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private CcdSearchQueries() {
+    }
+
+    /**
+     * Returns one page of the query, sorted ascending on the case reference and starting after the case with id
+     * {@code searchAfter} when it is not null. Any sort or from offset in the original query is replaced.
+     */
+    public static String withSearchAfterPage(String query, int size, Long searchAfter) {
+        ObjectNode root = parse(query);
+        root.remove("from");
+        root.put("size", size);
+        root.putArray("sort").addObject().put(CASE_REFERENCE_SORT_FIELD, "asc");
+        if (searchAfter == null) {
+            root.remove("search_after");
+        } else {
+            root.putArray("search_after").add(searchAfter.toString());
+        }
+        return root.toString();
+    }
+
+    /**
+     * Restricts the hits to the case metadata and the given case data fields, named by their path within
+     * {@code SscsCaseData}, for example {@code appeal.appellant.identity.nino}.
+     */
+    public static String withCaseDataProjection(String query, Collection<String> caseDataFields) {
+        ObjectNode root = parse(query);
+        ArrayNode source = root.putArray("_source");
+        sourceIncludes(caseDataFields).forEach(source::add);
+        return root.toString();
+    }
+
+    /**
+     * Asks for the exact number of hits and no cases. Any paging, sort or projection in the original query is
+     * dropped.
+     */
+    public static String countOnly(String query) {
+        ObjectNode root = withoutHits(query);
+        root.put("track_total_hits", true);
+        return root.toString();
+    }
+
+    /**
+     * Asks only whether there is a hit, so Elasticsearch can stop at the first one, and for no cases.
+     */
+    public static String existsOnly(String query) {
+        ObjectNode root = withoutHits(query);
+        root.put("track_total_hits", 1);
+        return root.toString();
+    }
+
+    /**
+     * Leaves draft and archived draft cases out of the hits, as the search services do after searching when
+     * they return cases. Counting has to leave them out in the query itself.
+     */
+    public static String excludingDraftCases(String query) {
+        ObjectNode root = parse(query);
+        ObjectNode bool = MAPPER.createObjectNode();
+        JsonNode originalQuery = root.get("query");
+        if (originalQuery != null) {
+            bool.putArray("filter").add(originalQuery);
+        }
+        ArrayNode draftStates = bool.putArray("must_not").addObject().putObject("terms").putArray("state");
+        DRAFT_STATES.forEach(draftStates::add);
+        root.putObject("query").set("bool", bool);
+        return root.toString();
+    }
+
+    /**
+     * Returns one page of the cases the query matches that were last modified before {@code modifiedBeforeMillis},
+     * oldest first with the case reference breaking ties, starting after {@code after} when it is not null.
+     * Any sort or from offset in the original query is replaced.
+     */
+    public static String withChangesAfterPage(String query, int size, CaseChangeWatermark after, long modifiedBeforeMillis) {
+        ObjectNode root = parse(query);
+        ObjectNode bool = MAPPER.createObjectNode();
+        ArrayNode filter = bool.putArray("filter");
+        JsonNode originalQuery = root.get("query");
+        if (originalQuery != null) {
+            filter.add(originalQuery);
+        }
+        ObjectNode lastModified = filter.addObject().putObject("range").putObject("last_modified");
+        if (after != null) {
+            lastModified.put("gte", after.lastModifiedMillis());
+        }
+        lastModified.put("lt", modifiedBeforeMillis).put("format", "epoch_millis");
+        root.putObject("query").set("bool", bool);
+
+        root.remove("from");
+        root.put("size", size);
+        ArrayNode sort = root.putArray("sort");
+        sort.addObject().put("last_modified", "asc");
+        sort.addObject().put(CASE_REFERENCE_SORT_FIELD, "asc");
+        if (after == null) {
+            root.remove("search_after");
+        } else {
+            root.putArray("search_after").add(after.lastModifiedMillis()).add(Long.toString(after.caseId()));
+        }
+        return root.toString();
+    }
+
+    private static ObjectNode withoutHits(String query) {
+        ObjectNode root = parse(query);
+        root.remove(List.of("from", "sort", "search_after", "_source"));
+        root.put("size", 0);
+        return root;
+    }
+
+    static String[] sourceIncludes(Collection<String> caseDataFields) {
+        return Stream.concat(
+                CASE_METADATA_FIELDS.stream(),
+                caseDataFields.stream().map(field -> field.startsWith(CASE_DATA_PREFIX) ? field : CASE_DATA_PREFIX + field))
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    static ObjectNode parse(String query) {
+        try {
+            JsonNode node = MAPPER.readTree(query);
+            if (node instanceof ObjectNode objectNode) {
+                return objectNode;
+            }
+            throw new IllegalArgumentException("Search query must be a JSON object: " + query);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Search query is not valid JSON: " + query, e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static java.util.Collections.emptyIterator;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+
+/**
+ * Walks every page of a CCD search, holding at most the current page and the next one.
+ * Hits are filtered on their metadata and only the survivors are converted, as they are consumed.
+ * The next page is requested in the background as soon as the current one arrives.
+ */
+class CcdSearchResultIterator implements Iterator<SscsCaseDetails>, AutoCloseable {
+
+    private static final long FIRST_PAGE = -1L;
+
+    private final LongFunction<List<CaseDetails>> pageFetcher;
+    private final Predicate<CaseDetails> metadataFilter;
+    private final Function<CaseDetails, SscsCaseDetails> converter;
+    private final int pageSize;
+    private final Executor prefetchExecutor;
+
+    private Iterator<CaseDetails> currentPage = emptyIterator();
+    private CompletableFuture<List<CaseDetails>> nextPage;
+    private SscsCaseDetails next;
+    private boolean started;
+    private boolean exhausted;
+
+    /**
+     * Creates an iterator over a search.
+     *
+     * @param pageFetcher fetches the page after the given case id, or the first page for {@code -1}
+     */
+    CcdSearchResultIterator(LongFunction<List<CaseDetails>> pageFetcher,
+                            Predicate<CaseDetails> metadataFilter,
+                            Function<CaseDetails, SscsCaseDetails> converter,
+                            int pageSize,
+                            Executor prefetchExecutor) {
+        this.pageFetcher = pageFetcher;
+        this.metadataFilter = metadataFilter;
+        this.converter = converter;
+        this.pageSize = pageSize;
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            if (currentPage.hasNext()) {
+                CaseDetails hit = currentPage.next();
+                if (metadataFilter.test(hit)) {
+                    next = converter.apply(hit);
+                }
+            } else if (!advancePage()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public SscsCaseDetails next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SscsCaseDetails current = next;
+        next = null;
+        return current;
+    }
+
+    @Override
+    public void close() {
+        exhausted = true;
+        if (nextPage != null) {
+            nextPage.cancel(true);
+            nextPage = null;
+        }
+    }
+
+    private boolean advancePage() {
+        if (exhausted) {
+            return false;
+        }
+
+        List<CaseDetails> page;
+        if (started) {
+            page = await(nextPage);
+        } else {
+            started = true;
+            page = pageFetcher.apply(FIRST_PAGE);
+        }
+        nextPage = null;
+
+        if (page == null || page.isEmpty()) {
+            exhausted = true;
+            return false;
+        }
+        if (page.size() < pageSize) {
+            exhausted = true;
+        } else {
+            long lastCaseId = page.get(page.size() - 1).getId();
+            nextPage = CompletableFuture.supplyAsync(() -> pageFetcher.apply(lastCaseId), prefetchExecutor);
+        }
+        currentPage = page.iterator();
+        return true;
+    }
+
+    private static List<CaseDetails> await(CompletableFuture<List<CaseDetails>> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -3,10 +3,12 @@ package uk.gov.hmcts.reform.sscs.ccd.service;
 import static uk.gov.hmcts.reform.sscs.ccd.domain.EventType.SUBSCRIPTION_UPDATED;
 import static uk.gov.hmcts.reform.sscs.ccd.service.SscsQueryBuilder.*;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +35,13 @@ public class CcdService {
     private static final String NO = "no";
     private final boolean sscs2Enabled;
 
+    /**
+     * Looks cases up by appeal number, and by NINO, benefit type and MRN date, with the exact-match filter
+     * queries of {@link SscsQueries} rather than the analysed match queries of {@link SscsQueryBuilder}.
+     */
+    @Value("${ccd.search.exact-match-filters:false}")
+    private boolean exactMatchFilters;
+
     @Autowired
     public CcdService(CreateCcdCaseService createCcdCaseService,
                       SearchCcdCaseService searchCcdCaseService,
@@ -64,6 +73,37 @@ public class CcdService {
         }
     }
 
+    public List<SscsCaseDetails> findCaseByQuery(CcdQuery.Search search, IdamTokens idamTokens) {
+        try {
+            return searchCcdCaseService.findSubmittedCasesBySearchCriteria(search.toJson(), idamTokens);
+        } catch (Exception ex) {
+            throw logCcdException(ERROR_WHILE_GETTING_CASE_FROM_CCD, ex);
+        }
+    }
+
+    /**
+     * Finds cases by a single field, returning partial case details holding only the case metadata and
+     * the given case data fields, for example {@code state} plus {@code subscriptions}.
+     */
+    public List<SscsCaseDetails> findCaseBy(String field, String value, Collection<String> caseDataFields, IdamTokens idamTokens) {
+        return findCaseByQuery(findCaseBySingleField(field, value), caseDataFields, idamTokens);
+    }
+
+    public List<SscsCaseDetails> findCaseByQuery(SearchSourceBuilder searchBuilder, Collection<String> caseDataFields, IdamTokens idamTokens) {
+        try {
+            return searchCcdCaseService.findProjectedCasesBySearchCriteria(searchBuilder.toString(), caseDataFields, idamTokens);
+        } catch (Exception ex) {
+            throw logCcdException(ERROR_WHILE_GETTING_CASE_FROM_CCD, ex);
+        }
+    }
+
+    /**
+     * Streams every submitted case matching the query page by page, for sweeps over more cases than fit in one search.
+     */
+    public Stream<SscsCaseDetails> streamCaseByQuery(SearchSourceBuilder searchBuilder, IdamTokens idamTokens) {
+        return searchCcdCaseService.streamSubmittedCasesBySearchCriteria(searchBuilder.toString(), idamTokens);
+    }
+
     public SscsCaseDetails findCaseByAppealNumber(String appealNumber, IdamTokens idamTokens) {
         try {
             return getCaseByAppealNumber(appealNumber, idamTokens);
@@ -72,7 +112,21 @@ public class CcdService {
         }
     }
 
+    /**
+     * Finds the submitted cases for many appeal numbers at once, see {@link SearchCcdCaseService#findCasesByTyaNumbers}.
+     */
+    public Map<String, List<SscsCaseDetails>> findCasesByAppealNumbers(Collection<String> appealNumbers, IdamTokens idamTokens) {
+        try {
+            return searchCcdCaseService.findCasesByTyaNumbers(appealNumbers, idamTokens);
+        } catch (Exception ex) {
+            throw logCcdException(ERROR_WHILE_GETTING_CASE_FROM_CCD, ex);
+        }
+    }
+
     public SscsCaseDetails getCaseForModification(Long caseId, IdamTokens idamTokens, String eventType) {
+        if (ccdClient.isStreamingDecodeEnabled()) {
+            return ccdClient.startEventForSscsCase(idamTokens, caseId, eventType);
+        }
         StartEventResponse startEventResponse = ccdClient.startEvent(idamTokens, caseId, eventType);
         return sscsCcdConvertService.getCaseDetails(startEventResponse);
     }
@@ -81,6 +135,10 @@ public class CcdService {
         return readCcdCaseService.getByCaseId(caseId, idamTokens);
     }
 
+    public Map<Long, BatchReadResult> getByCaseIds(Collection<Long> caseIds, IdamTokens idamTokens) {
+        return readCcdCaseService.getByCaseIds(caseIds, idamTokens);
+    }
+
     public SscsCaseDetails createCase(SscsCaseData caseData, String eventType, String summary, String description, IdamTokens idamTokens) {
         return createCcdCaseService.createCase(caseData, eventType, summary, description, idamTokens);
     }
@@ -101,9 +159,11 @@ public class CcdService {
     public SscsCaseDetails findCcdCaseByNinoAndBenefitTypeAndMrnDate(String nino, String benefitCode, String mrnDate, IdamTokens idamTokens) {
         if (mrnDate != null) {
             try {
-                SearchSourceBuilder searchBuilder = findCcdCaseByNinoAndBenefitTypeAndMrnDateQuery(nino, benefitCode, mrnDate);
+                String query = exactMatchFilters
+                        ? SscsQueries.findCcdCaseByNinoAndBenefitTypeAndMrnDateFilter(nino, benefitCode, mrnDate).toJson()
+                        : findCcdCaseByNinoAndBenefitTypeAndMrnDateQuery(nino, benefitCode, mrnDate).toString();
 
-                List<SscsCaseDetails> caseDetails = searchCcdCaseService.findSubmittedCasesBySearchCriteria(searchBuilder.toString(), idamTokens);
+                List<SscsCaseDetails> caseDetails = searchCcdCaseService.findSubmittedCasesBySearchCriteria(query, idamTokens);
 
                 return !caseDetails.isEmpty() ? caseDetails.get(0) : null;
             } catch (Exception ex) {
@@ -113,6 +173,51 @@ public class CcdService {
         return null;
     }
 
+    public long countCases(SearchSourceBuilder searchBuilder, IdamTokens idamTokens) {
+        return countCases(searchBuilder.toString(), idamTokens);
+    }
+
+    public long countCases(CcdQuery.Search search, IdamTokens idamTokens) {
+        return countCases(search.toJson(), idamTokens);
+    }
+
+    public boolean existsCase(SearchSourceBuilder searchBuilder, IdamTokens idamTokens) {
+        return existsCase(searchBuilder.toString(), idamTokens);
+    }
+
+    public boolean existsCase(CcdQuery.Search search, IdamTokens idamTokens) {
+        return existsCase(search.toJson(), idamTokens);
+    }
+
+    /**
+     * Whether a submitted case already exists for the NINO, benefit type and MRN date, for duplicate checks
+     * that do not need the case itself.
+     */
+    public boolean existsCcdCaseByNinoAndBenefitTypeAndMrnDate(String nino, String benefitCode, String mrnDate, IdamTokens idamTokens) {
+        if (mrnDate == null) {
+            return false;
+        }
+        return existsCase(exactMatchFilters
+                ? SscsQueries.findCcdCaseByNinoAndBenefitTypeAndMrnDateFilter(nino, benefitCode, mrnDate).toJson()
+                : findCcdCaseByNinoAndBenefitTypeAndMrnDateQuery(nino, benefitCode, mrnDate).toString(), idamTokens);
+    }
+
+    public long countCases(String query, IdamTokens idamTokens) {
+        try {
+            return searchCcdCaseService.countCases(query, idamTokens);
+        } catch (Exception ex) {
+            throw logCcdException(ERROR_WHILE_GETTING_CASE_FROM_CCD, ex);
+        }
+    }
+
+    public boolean existsCase(String query, IdamTokens idamTokens) {
+        try {
+            return searchCcdCaseService.existsCase(query, idamTokens);
+        } catch (Exception ex) {
+            throw logCcdException(ERROR_WHILE_GETTING_CASE_FROM_CCD, ex);
+        }
+    }
+
     public SscsCaseDetails updateSubscription(String appealNumber, String email, IdamTokens idamTokens) {
         try {
             SscsCaseDetails caseDetails = getCaseByAppealNumber(appealNumber, idamTokens);
@@ -174,15 +279,17 @@ public class CcdService {
     private SscsCaseDetails getCaseByAppealNumber(String appealNumber, IdamTokens idamTokens) {
         log.info("Finding case by appeal number {}", appealNumber);
 
-        SearchSourceBuilder searchBuilder;
-        if (sscs2Enabled) {
-            searchBuilder = findCaseByTyaNumberQueryWithOtherParty(appealNumber);
+        String query;
+        if (exactMatchFilters) {
+            query = SscsQueries.findCaseByTyaNumberFilter(appealNumber).toJson();
+        } else if (sscs2Enabled) {
+            query = findCaseByTyaNumberQueryWithOtherParty(appealNumber).toString();
         } else {
-            searchBuilder = findCaseByTyaNumberQuery(appealNumber);
+            query = findCaseByTyaNumberQuery(appealNumber).toString();
         }
 
 
-        List<SscsCaseDetails> caseDetailsList = searchCcdCaseService.findSubmittedCasesBySearchCriteria(searchBuilder.toString(), idamTokens);
+        List<SscsCaseDetails> caseDetailsList = searchCcdCaseService.findSubmittedCasesBySearchCriteria(query, idamTokens);
 
         caseDetailsList = caseDetailsList.stream()
                 .filter(AppealNumberGenerator::filterCaseNotDraftOrArchivedDraft)
@@ -0,0 +1,126 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.exception.CaseModifiedConcurrentlyException;
+import uk.gov.hmcts.reform.sscs.exception.ExitRetryableException;
+
+/**
+ * Runs a case update, retrying it when CCD's optimistic locking rejects it because the case changed
+ * underneath it, and when CCD fails transiently. Retries wait for an exponentially growing, fully
+ * jittered delay so that callers contending for the same case spread out rather than retry in step.
+ * Client errors other than a conflict are never retried, and neither is {@link ExitRetryableException}.
+ */
+@Slf4j
+@Component
+public class CcdUpdateExecutor {
+
+    static final String CONFLICTS_METRIC = "ccd.update.conflicts";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ccd.update.conflict-max-attempts:5}")
+    private int conflictMaxAttempts = 5;
+
+    @Value("${ccd.update.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${ccd.update.initial-backoff-ms:200}")
+    private long initialBackoffMillis = 200;
+
+    @Value("${ccd.update.max-backoff-ms:5000}")
+    private long maxBackoffMillis = 5000;
+
+    public CcdUpdateExecutor() {
+        this(new SimpleMeterRegistry());
+    }
+
+    public CcdUpdateExecutor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Autowired
+    public CcdUpdateExecutor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    public <T> T execute(Long caseId, String eventType, Supplier<T> update) {
+        int conflicts = 0;
+        int failures = 0;
+        while (true) {
+            try {
+                return update.get();
+            } catch (RuntimeException e) {
+                int attempt;
+                if (isConflict(e)) {
+                    conflictCounter(conflictingEventType(e, eventType)).increment();
+                    attempt = ++conflicts;
+                    if (attempt >= conflictMaxAttempts) {
+                        log.error("Giving up on caseId {} and eventType {} after {} conflicting updates",
+                                caseId, eventType, attempt);
+                        throw e;
+                    }
+                    log.warn("Conflicting update {} for caseId {} and eventType {}", attempt, caseId, eventType);
+                } else if (isRetryable(e)) {
+                    attempt = ++failures;
+                    if (attempt >= maxAttempts) {
+                        throw e;
+                    }
+                    log.warn("Update attempt {} failed for caseId {} and eventType {}", attempt, caseId, eventType, e);
+                } else {
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * True for CCD rejecting an update because the case changed since its event was started.
+     */
+    public static boolean isConflict(Throwable e) {
+        return e instanceof CaseModifiedConcurrentlyException
+                || e instanceof FeignException feignException && feignException.status() == 409;
+    }
+
+    private static String conflictingEventType(RuntimeException e, String eventType) {
+        return e instanceof CaseModifiedConcurrentlyException conflict && conflict.getEventType() != null
+                ? conflict.getEventType()
+                : eventType;
+    }
+
+    private static boolean isRetryable(RuntimeException e) {
+        if (e instanceof ExitRetryableException) {
+            return false;
+        }
+        return !(e instanceof FeignException feignException)
+                || feignException.status() < 400 || feignException.status() >= 500;
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting to retry a case update", e);
+        }
+    }
+
+    private Counter conflictCounter(String eventType) {
+        return Counter.builder(CONFLICTS_METRIC)
+                .description("CCD case updates rejected because the case was modified concurrently")
+                .tag("eventType", String.valueOf(eventType))
+                .register(meterRegistry);
+    }
+}
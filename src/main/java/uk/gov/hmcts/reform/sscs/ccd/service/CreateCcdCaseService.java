@@ -22,13 +22,20 @@ public class CreateCcdCaseService {
     private final IdamService idamService;
     private final SscsCcdConvertService sscsCcdConvertService;
     private final CcdClient ccdClient;
+    private final SscsCaseDetailsCache sscsCaseDetailsCache;
 
-    @Autowired
     public CreateCcdCaseService(IdamService idamService, SscsCcdConvertService sscsCcdConvertService,
                                 CcdClient ccdClient) {
+        this(idamService, sscsCcdConvertService, ccdClient, SscsCaseDetailsCache.disabled());
+    }
+
+    @Autowired
+    public CreateCcdCaseService(IdamService idamService, SscsCcdConvertService sscsCcdConvertService,
+                                CcdClient ccdClient, SscsCaseDetailsCache sscsCaseDetailsCache) {
         this.idamService = idamService;
         this.sscsCcdConvertService = sscsCcdConvertService;
         this.ccdClient = ccdClient;
+        this.sscsCaseDetailsCache = sscsCaseDetailsCache;
     }
 
     @Retryable
@@ -58,7 +65,9 @@ public class CreateCcdCaseService {
 
         log.info("Case created with case id {} for nino {}", caseDetails.getId(), nino);
 
-        return sscsCcdConvertService.getCaseDetails(caseDetails);
+        SscsCaseDetails sscsCaseDetails = sscsCcdConvertService.getCaseDetails(caseDetails);
+        sscsCaseDetailsCache.put(sscsCaseDetails, idamTokens);
+        return sscsCaseDetails;
     }
 
     private String getAppellantNino(SscsCaseData caseData) {
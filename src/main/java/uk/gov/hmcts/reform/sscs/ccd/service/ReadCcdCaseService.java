@@ -1,9 +1,25 @@
 package uk.gov.hmcts.reform.sscs.ccd.service;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Recover;
 import org.springframework.retry.annotation.Retryable;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.sscs.ccd.client.CcdClient;
@@ -18,19 +34,98 @@ public class ReadCcdCaseService {
     private final IdamService idamService;
     private final CcdClient ccdClient;
     private final SscsCcdConvertService sscsCcdConvertService;
+    private final SscsCaseDetailsCache sscsCaseDetailsCache;
+
+    /**
+     * Mirrors the default {@link Retryable} policy, which does not apply to calls made from within this class.
+     */
+    private final RetryTemplate batchReadRetryTemplate = RetryTemplate.builder()
+            .maxAttempts(3)
+            .fixedBackoff(1000L)
+            .retryOn(Exception.class)
+            .build();
+
+    @Value("${ccd.batch-read.max-in-flight:16}")
+    private int batchReadMaxInFlight = 16;
+
+    @Value("${ccd.batch-read.virtual-threads:true}")
+    private boolean batchReadVirtualThreads = true;
+
+    @Value("${ccd.read.coalesce.enabled:false}")
+    private boolean coalesceReads;
+
+    private final Map<InFlightRead, CompletableFuture<SscsCaseDetails>> inFlightReads = new ConcurrentHashMap<>();
 
-    @Autowired
     public ReadCcdCaseService(IdamService idamService,
                               CcdClient ccdClient,
                               SscsCcdConvertService sscsCcdConvertService) {
+        this(idamService, ccdClient, sscsCcdConvertService, SscsCaseDetailsCache.disabled());
+    }
+
+    @Autowired
+    public ReadCcdCaseService(IdamService idamService,
+                              CcdClient ccdClient,
+                              SscsCcdConvertService sscsCcdConvertService,
+                              SscsCaseDetailsCache sscsCaseDetailsCache) {
         this.idamService = idamService;
         this.ccdClient = ccdClient;
         this.sscsCcdConvertService = sscsCcdConvertService;
+        this.sscsCaseDetailsCache = sscsCaseDetailsCache;
     }
 
     @Retryable
     protected SscsCaseDetails getByCaseId(Long caseId, IdamTokens idamTokens) {
+        Optional<SscsCaseDetails> cached = sscsCaseDetailsCache.get(caseId, idamTokens);
+        if (cached.isPresent()) {
+            log.info("Found caseId {} in the case cache", caseId);
+            return cached.get();
+        }
+        SscsCaseDetails caseDetails = coalesceReads ? readCoalesced(caseId, idamTokens) : read(caseId, idamTokens);
+        sscsCaseDetailsCache.put(caseDetails, idamTokens);
+        return caseDetails;
+    }
+
+    /**
+     * Lets concurrent reads of the same case with the same token share one request to CCD. The case read is
+     * kept as a snapshot that no caller holds, and every caller, including the one that made the request, gets
+     * its own deep copy of it, so changes one caller makes to its case cannot be seen by another.
+     */
+    private SscsCaseDetails readCoalesced(Long caseId, IdamTokens idamTokens) {
+        InFlightRead key = new InFlightRead(caseId, idamTokens == null ? null : idamTokens.getIdamOauth2Token());
+        CompletableFuture<SscsCaseDetails> read = new CompletableFuture<>();
+        CompletableFuture<SscsCaseDetails> inFlight = inFlightReads.putIfAbsent(key, read);
+        if (inFlight != null) {
+            log.info("Joining in-flight read of caseId {}", caseId);
+            return sscsCcdConvertService.copyOf(awaitRead(inFlight));
+        }
+        try {
+            SscsCaseDetails snapshot = read(caseId, idamTokens);
+            read.complete(snapshot);
+            return sscsCcdConvertService.copyOf(snapshot);
+        } catch (RuntimeException | Error e) {
+            read.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightReads.remove(key, read);
+        }
+    }
+
+    private static SscsCaseDetails awaitRead(CompletableFuture<SscsCaseDetails> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private SscsCaseDetails read(Long caseId, IdamTokens idamTokens) {
         log.info("searching cases by ccdID {}", caseId);
+        if (ccdClient.isStreamingDecodeEnabled()) {
+            return ccdClient.readSscsCaseDetailsForCaseworker(idamTokens, caseId);
+        }
         CaseDetails caseDetails = ccdClient.readForCaseworker(idamTokens, caseId);
         if (null != caseDetails) {
             return sscsCcdConvertService.getCaseDetails(caseDetails);
@@ -39,14 +134,78 @@ public class ReadCcdCaseService {
     }
 
     @Recover
-    protected SscsCaseDetails recover(Long caseId) {
+    protected SscsCaseDetails recover(Throwable exception, Long caseId) {
 
         log.info("Requesting IDAM tokens to get caseId {}", caseId);
 
+        if (IdamService.isTokenRejected(exception)) {
+            idamService.invalidateTokens();
+        }
         IdamTokens idamTokens = idamService.getIdamTokens();
 
         log.info("Received IDAM tokens for getting caseId {}", caseId);
 
         return getByCaseId(caseId, idamTokens);
     }
+
+    /**
+     * Reads the given cases concurrently, with at most {@code ccd.batch-read.max-in-flight} requests to CCD
+     * at any one time. Each case is retried, and then recovered with fresh IDAM tokens, in the same way as
+     * {@link #getByCaseId}. Results are keyed by case id in the order the ids were given.
+     */
+    public Map<Long, BatchReadResult> getByCaseIds(Collection<Long> caseIds, IdamTokens idamTokens) {
+        List<Long> distinctCaseIds = caseIds.stream().filter(Objects::nonNull).distinct().toList();
+        log.info("Reading {} cases by ccdID with at most {} in flight", distinctCaseIds.size(), batchReadMaxInFlight);
+
+        Map<Long, Future<BatchReadResult>> futures = new LinkedHashMap<>();
+        Semaphore inFlight = new Semaphore(Math.max(1, batchReadMaxInFlight));
+        try (ExecutorService executor = newBatchReadExecutor()) {
+            for (Long caseId : distinctCaseIds) {
+                inFlight.acquireUninterruptibly();
+                futures.put(caseId, executor.submit(() -> {
+                    try {
+                        return readWithRetry(caseId, idamTokens);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+
+            Map<Long, BatchReadResult> results = new LinkedHashMap<>();
+            futures.forEach((caseId, future) -> results.put(caseId, awaitResult(caseId, future)));
+            return results;
+        }
+    }
+
+    private ExecutorService newBatchReadExecutor() {
+        return batchReadVirtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ccd-batch-read-", 0).factory())
+                : Executors.newFixedThreadPool(Math.max(1, batchReadMaxInFlight));
+    }
+
+    private BatchReadResult readWithRetry(Long caseId, IdamTokens idamTokens) {
+        try {
+            SscsCaseDetails caseDetails = batchReadRetryTemplate.execute(
+                    context -> getByCaseId(caseId, idamTokens),
+                    context -> recover(context.getLastThrowable(), caseId));
+            return BatchReadResult.success(caseId, caseDetails);
+        } catch (RuntimeException e) {
+            log.error("Failed to read caseId {} in batch", caseId, e);
+            return BatchReadResult.failure(caseId, e);
+        }
+    }
+
+    private static BatchReadResult awaitResult(Long caseId, Future<BatchReadResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BatchReadResult.failure(caseId, new IllegalStateException("Interrupted reading caseId " + caseId, e));
+        } catch (ExecutionException e) {
+            return BatchReadResult.failure(caseId, new IllegalStateException("Failed reading caseId " + caseId, e.getCause()));
+        }
+    }
+
+    private record InFlightRead(Long caseId, String idamOauth2Token) {
+    }
 }
@@ -2,24 +2,49 @@ package uk.gov.hmcts.reform.sscs.ccd.service;
 
 import static java.util.Objects.nonNull;
 import static java.util.stream.Collectors.toList;
+import static uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates.any;
+import static uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates.notDraftOrArchivedDraft;
 import static uk.gov.hmcts.reform.sscs.ccd.service.SscsQueryBuilder.findCaseBySingleField;
 
+import com.google.common.collect.Lists;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Retryable;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.SearchResult;
 import uk.gov.hmcts.reform.sscs.ccd.client.CcdClient;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Appeal;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Appellant;
+import uk.gov.hmcts.reform.sscs.ccd.domain.CcdValue;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Identity;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Subscription;
 import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
-import uk.gov.hmcts.reform.sscs.utility.AppealNumberGenerator;
 
 @Slf4j
 @Service
@@ -28,14 +53,37 @@ public class SearchCcdCaseService {
     private final SscsCcdConvertService sscsCcdConvertService;
     private final CcdClient ccdClient;
     private final ReadCcdCaseService readCcdCaseService;
+    private final SscsCaseDetailsCache sscsCaseDetailsCache;
+
+    private final RetryTemplate pageRetryTemplate = RetryTemplate.builder()
+            .maxAttempts(3)
+            .fixedBackoff(1000L)
+            .retryOn(Exception.class)
+            .build();
+
+    private final Executor pagePrefetchExecutor = runnable -> Thread.ofVirtual().name("ccd-search-prefetch").start(runnable);
+
+    @Value("${ccd.search.page-size:100}")
+    private int searchPageSize = 100;
+
+    @Value("${ccd.search.batch-lookup.max-keys:500}")
+    private int batchLookupMaxKeys = 500;
 
-    @Autowired
     public SearchCcdCaseService(SscsCcdConvertService sscsCcdConvertService,
                                 CcdClient ccdClient,
                                 ReadCcdCaseService readCcdCaseService) {
+        this(sscsCcdConvertService, ccdClient, readCcdCaseService, SscsCaseDetailsCache.disabled());
+    }
+
+    @Autowired
+    public SearchCcdCaseService(SscsCcdConvertService sscsCcdConvertService,
+                                CcdClient ccdClient,
+                                ReadCcdCaseService readCcdCaseService,
+                                SscsCaseDetailsCache sscsCaseDetailsCache) {
         this.sscsCcdConvertService = sscsCcdConvertService;
         this.ccdClient = ccdClient;
         this.readCcdCaseService = readCcdCaseService;
+        this.sscsCaseDetailsCache = sscsCaseDetailsCache;
     }
 
     @Retryable
@@ -61,7 +109,22 @@ public class SearchCcdCaseService {
         return findCaseBySearchCriteriaRetryLogic(
                 query,
                 idamTokens,
-                AppealNumberGenerator::filterCaseNotDraftOrArchivedDraft
+                notDraftOrArchivedDraft()
+        );
+    }
+
+    /**
+     * Finds submitted cases, returning partial case details that only hold the case metadata and the given
+     * case data fields. See {@link CcdSearchQueries#withCaseDataProjection(String, Collection)}.
+     */
+    @Retryable
+    public List<SscsCaseDetails> findProjectedCasesBySearchCriteria(String query, Collection<String> caseDataFields,
+                                                                    IdamTokens idamTokens) {
+        log.info("findProjectedCasesBySearchCriteria {} with fields {}", query, caseDataFields);
+        return findCaseBySearchCriteriaRetryLogic(
+                CcdSearchQueries.withCaseDataProjection(query, caseDataFields),
+                idamTokens,
+                notDraftOrArchivedDraft()
         );
     }
 
@@ -71,23 +134,199 @@ public class SearchCcdCaseService {
         return findCaseBySearchCriteriaRetryLogic(
                 query,
                 idamTokens,
-                caseDetails -> true
+                any()
         );
     }
 
+    /**
+     * Finds cases matching the query whose metadata passes the filter. The filter is applied to the raw hits,
+     * see {@link uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates}, so case data is only bound
+     * for the cases that are returned.
+     */
+    @Retryable
+    public List<SscsCaseDetails> findCasesBySearchCriteria(String query, Predicate<CaseDetails> metadataFilter,
+                                                           IdamTokens idamTokens) {
+        log.info("findCaseBySearchCriteria {}", query);
+        return findCaseBySearchCriteriaRetryLogic(query, idamTokens, metadataFilter);
+    }
+
     private List<SscsCaseDetails> findCaseBySearchCriteriaRetryLogic(String query, IdamTokens idamTokens,
-                                                                     Predicate<SscsCaseDetails> caseFilter) {
+                                                                     Predicate<CaseDetails> metadataFilter) {
+        if (ccdClient.isStreamingDecodeEnabled()) {
+            return ccdClient.searchSscsCases(idamTokens, query, metadataFilter);
+        }
         SearchResult caseDetailsList = ccdClient.searchCases(idamTokens, query);
 
         if (nonNull(caseDetailsList) && nonNull(caseDetailsList.getCases())) {
             return caseDetailsList.getCases().stream()
+                    .filter(metadataFilter)
                     .map(sscsCcdConvertService::getCaseDetails)
-                    .filter(caseFilter)
                     .collect(toList());
         }
         return null;
     }
 
+    /**
+     * Lazily streams every submitted case matching the query, paging through CCD with {@code search_after}
+     * on a stable sort. Hits are converted as the stream is consumed and the next page is fetched in the
+     * background, so memory use stays at roughly two pages however many cases match.
+     * Close the stream if it is abandoned before the end.
+     */
+    public Stream<SscsCaseDetails> streamSubmittedCasesBySearchCriteria(String query, IdamTokens idamTokens) {
+        return streamCasesBySearchCriteria(query, notDraftOrArchivedDraft(), idamTokens);
+    }
+
+    public Stream<SscsCaseDetails> streamAllCasesBySearchCriteria(String query, IdamTokens idamTokens) {
+        return streamCasesBySearchCriteria(query, any(), idamTokens);
+    }
+
+    /**
+     * Lazily streams the cases matching the query whose metadata passes the filter, as
+     * {@link #streamSubmittedCasesBySearchCriteria(String, IdamTokens)} does for submitted cases.
+     */
+    public Stream<SscsCaseDetails> streamCasesBySearchCriteria(String query, Predicate<CaseDetails> metadataFilter,
+                                                               IdamTokens idamTokens) {
+        log.info("streamCaseBySearchCriteria {}", query);
+        CcdSearchResultIterator iterator = new CcdSearchResultIterator(
+                searchAfter -> fetchSearchPage(query, searchAfter, idamTokens),
+                metadataFilter,
+                sscsCcdConvertService::getCaseDetails,
+                searchPageSize,
+                pagePrefetchExecutor);
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::close);
+    }
+
+    private List<CaseDetails> fetchSearchPage(String query, long searchAfter, IdamTokens idamTokens) {
+        String pageQuery = CcdSearchQueries.withSearchAfterPage(query, searchPageSize,
+                searchAfter < 0 ? null : searchAfter);
+        SearchResult searchResult = pageRetryTemplate.execute(context -> ccdClient.searchCases(idamTokens, pageQuery));
+        return nonNull(searchResult) && nonNull(searchResult.getCases()) ? searchResult.getCases() : List.of();
+    }
+
+    /**
+     * The number of submitted cases matching the query, found without CCD returning any of them.
+     */
+    @Retryable
+    public long countCases(String query, IdamTokens idamTokens) {
+        String countQuery = CcdSearchQueries.countOnly(CcdSearchQueries.excludingDraftCases(query));
+        log.info("countCases {}", countQuery);
+        return totalOf(ccdClient.searchCases(idamTokens, countQuery));
+    }
+
+    /**
+     * Whether any submitted case matches the query, found without CCD returning it.
+     */
+    @Retryable
+    public boolean existsCase(String query, IdamTokens idamTokens) {
+        String existsQuery = CcdSearchQueries.existsOnly(CcdSearchQueries.excludingDraftCases(query));
+        log.info("existsCase {}", existsQuery);
+        return totalOf(ccdClient.searchCases(idamTokens, existsQuery)) > 0;
+    }
+
+    /**
+     * One page of the submitted cases matching the query that changed after the watermark, or from the start
+     * when it is null, and before {@code modifiedBefore}, oldest first. Drafts are left out in the query, so a
+     * short page is the last one.
+     */
+    public List<SscsCaseDetails> findCasesChangedAfter(String query, CaseChangeWatermark after, LocalDateTime modifiedBefore,
+                                                       int size, IdamTokens idamTokens) {
+        String pageQuery = CcdSearchQueries.withChangesAfterPage(CcdSearchQueries.excludingDraftCases(query), size, after,
+                modifiedBefore.toInstant(ZoneOffset.UTC).toEpochMilli());
+        log.info("findCasesChangedAfter {}", pageQuery);
+        SearchResult searchResult = pageRetryTemplate.execute(context -> ccdClient.searchCases(idamTokens, pageQuery));
+        return nonNull(searchResult) && nonNull(searchResult.getCases())
+                ? searchResult.getCases().stream().map(sscsCcdConvertService::getCaseDetails).toList()
+                : List.of();
+    }
+
+    private static long totalOf(SearchResult searchResult) {
+        return nonNull(searchResult) ? searchResult.getTotal() : 0;
+    }
+
+    /**
+     * Finds the submitted cases for each TYA number, in any of the subscriptions
+     * {@link CcdService#findCaseByAppealNumber} looks in, with one paged search for every
+     * {@code ccd.search.batch-lookup.max-keys} numbers instead of one search per number. Numbers are matched
+     * exactly. Every number given is a key of the result, in the order given, with no cases if none were found.
+     */
+    public Map<String, List<SscsCaseDetails>> findCasesByTyaNumbers(Collection<String> tyaNumbers, IdamTokens idamTokens) {
+        return findCasesByKeys(tyaNumbers, UnaryOperator.identity(), SscsQueries::findCasesByTyaNumbersFilter,
+                SearchCcdCaseService::tyaNumbersOf, idamTokens);
+    }
+
+    /**
+     * Finds the submitted cases for each SC reference, as {@link #findCasesByTyaNumbers} does for TYA numbers.
+     */
+    public Map<String, List<SscsCaseDetails>> findCasesByCaseRefs(Collection<String> caseRefs, IdamTokens idamTokens) {
+        return findCasesByKeys(caseRefs, UnaryOperator.identity(), SscsQueries::findCasesByCaseReferencesFilter,
+                caseData -> Stream.of(caseData.getCaseReference()), idamTokens);
+    }
+
+    /**
+     * Finds the submitted cases for each appellant NINO, as {@link #findCasesByTyaNumbers} does for TYA numbers.
+     * NINOs are looked up without spaces and in upper case, so only cases holding them that way are found.
+     */
+    public Map<String, List<SscsCaseDetails>> findCasesByNinos(Collection<String> ninos, IdamTokens idamTokens) {
+        return findCasesByKeys(ninos, SscsCcdConvertService::normaliseNino, SscsQueries::findCasesByNinosFilter,
+                SearchCcdCaseService::ninoOf, idamTokens);
+    }
+
+    private Map<String, List<SscsCaseDetails>> findCasesByKeys(Collection<String> keys, UnaryOperator<String> normalise,
+                                                               Function<Collection<String>, CcdQuery.Search> query,
+                                                               Function<SscsCaseData, Stream<String>> keysOfCase,
+                                                               IdamTokens idamTokens) {
+        Map<String, List<SscsCaseDetails>> casesByKey = new LinkedHashMap<>();
+        Map<String, List<String>> keysByLookup = new LinkedHashMap<>();
+        keys.stream().filter(StringUtils::isNotBlank).distinct().forEach(key -> {
+            casesByKey.put(key, new ArrayList<>());
+            keysByLookup.computeIfAbsent(normalise.apply(key), lookup -> new ArrayList<>()).add(key);
+        });
+
+        for (List<String> batch : Lists.partition(List.copyOf(keysByLookup.keySet()), Math.max(1, batchLookupMaxKeys))) {
+            log.info("Finding cases for {} keys in one search", batch.size());
+            Set<String> batchKeys = Set.copyOf(batch);
+            try (Stream<SscsCaseDetails> cases = streamSubmittedCasesBySearchCriteria(query.apply(batch).toJson(), idamTokens)) {
+                cases.filter(caseDetails -> caseDetails.getData() != null)
+                        .forEach(caseDetails -> keysOfCase.apply(caseDetails.getData())
+                                .filter(batchKeys::contains)
+                                .distinct()
+                                .flatMap(lookup -> keysByLookup.get(lookup).stream())
+                                .forEach(key -> casesByKey.get(key).add(caseDetails)));
+            }
+        }
+        return casesByKey;
+    }
+
+    private static Stream<String> tyaNumbersOf(SscsCaseData caseData) {
+        Stream<Subscription> subscriptions = Optional.ofNullable(caseData.getSubscriptions())
+                .map(caseSubscriptions -> Stream.of(caseSubscriptions.getAppellantSubscription(),
+                        caseSubscriptions.getAppointeeSubscription(), caseSubscriptions.getRepresentativeSubscription(),
+                        caseSubscriptions.getJointPartySubscription()))
+                .orElseGet(Stream::empty);
+        Stream<Subscription> otherPartySubscriptions = Optional.ofNullable(caseData.getOtherParties())
+                .orElseGet(List::of).stream()
+                .filter(Objects::nonNull)
+                .map(CcdValue::getValue)
+                .filter(Objects::nonNull)
+                .flatMap(otherParty -> Stream.of(otherParty.getOtherPartySubscription(),
+                        otherParty.getOtherPartyAppointeeSubscription(), otherParty.getOtherPartyRepresentativeSubscription()));
+        return Stream.concat(subscriptions, otherPartySubscriptions)
+                .filter(Objects::nonNull)
+                .map(Subscription::getTya)
+                .filter(Objects::nonNull);
+    }
+
+    private static Stream<String> ninoOf(SscsCaseData caseData) {
+        return Optional.ofNullable(caseData.getAppeal())
+                .map(Appeal::getAppellant)
+                .map(Appellant::getIdentity)
+                .map(Identity::getNino)
+                .map(SscsCcdConvertService::normaliseNino)
+                .stream();
+    }
+
     @Retryable
     public SscsCaseDetails findCaseByCaseRefOrCaseId(SscsCaseData caseData, IdamTokens idamTokens) {
         log.info("findCaseByCaseRefOrCaseId {}", caseData.getCcdCaseId());
@@ -105,7 +344,10 @@ public class SearchCcdCaseService {
         if (StringUtils.isNotBlank(caseData.getCaseReference())) {
             sscsCaseDetails = this.findCaseByCaseRef(caseData.getCaseReference(), idamTokens);
             if (sscsCaseDetails != null){
-                sscsCaseDetails = readCcdCaseService.getByCaseId(sscsCaseDetails.getId(), idamTokens);
+                // the search hit says when the case was last modified, so a cached copy is only used if it is that version
+                Long caseId = sscsCaseDetails.getId();
+                sscsCaseDetails = sscsCaseDetailsCache.getIfCurrent(caseId, sscsCaseDetails.getLastModified(), idamTokens)
+                        .orElseGet(() -> readCcdCaseService.getByCaseId(caseId, idamTokens));
             }
         }
         if (null == sscsCaseDetails && StringUtils.isNotBlank(caseData.getCcdCaseId())) {
@@ -0,0 +1,92 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.exception.CcdDeserializationException;
+
+/**
+ * Holds the Jackson configuration used to move case data between CCD's untyped map and {@link SscsCaseData}.
+ * The mappers are built once, so the deserializer and serializer caches for {@link SscsCaseData} are shared
+ * by every read, search, start event and submit rather than rebuilt on each conversion.
+ */
+@Component
+public class SscsCaseDataConverter {
+
+    private static final TypeReference<Map<String, Object>> DATA_MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper readMapper;
+    private final ObjectMapper writeMapper;
+    private final ObjectMapper submitMapper;
+    private final ObjectReader caseDataReader;
+    private final ObjectWriter caseDataWriter;
+
+    public SscsCaseDataConverter() {
+        readMapper = new ObjectMapper();
+        readMapper.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
+        readMapper.configure(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL, true);
+        readMapper.findAndRegisterModules();
+
+        writeMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        submitMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        caseDataReader = readMapper.readerFor(SscsCaseData.class);
+        caseDataWriter = writeMapper.writerFor(SscsCaseData.class);
+    }
+
+    public SscsCaseData toCaseData(Map<String, Object> dataMap) {
+        return readMapper.convertValue(dataMap, SscsCaseData.class);
+    }
+
+    public Map<String, Object> toDataMap(SscsCaseData caseData) {
+        return writeMapper.convertValue(caseData, DATA_MAP_TYPE);
+    }
+
+    /**
+     * Converts case data to the map that is sent to CCD when it is submitted, with dates written as text as
+     * the Spring encoder of the CCD client writes them.
+     */
+    public Map<String, Object> toSubmittedDataMap(SscsCaseData caseData) {
+        return submitMapper.convertValue(caseData, DATA_MAP_TYPE);
+    }
+
+    public byte[] toSubmittedJson(Object data) {
+        try {
+            return submitMapper.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot write case data as JSON", e);
+        }
+    }
+
+    /**
+     * A deep copy of the case data, written out and read back the same way case data read from CCD is.
+     */
+    public SscsCaseData copyOf(SscsCaseData caseData) {
+        if (caseData == null) {
+            return null;
+        }
+        try {
+            return caseDataReader.readValue(caseDataWriter.writeValueAsBytes(caseData));
+        } catch (IOException e) {
+            throw new CcdDeserializationException(e);
+        }
+    }
+
+    public ObjectReader getCaseDataReader() {
+        return caseDataReader;
+    }
+
+    public ObjectWriter getCaseDataWriter() {
+        return caseDataWriter;
+    }
+}
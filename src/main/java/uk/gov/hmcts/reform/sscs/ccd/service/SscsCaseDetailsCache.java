@@ -0,0 +1,162 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+
+/**
+ * Keeps cases read from CCD by case id for {@code ccd.case-cache.ttl-ms}, so that a workflow reading the same
+ * case several times only fetches it once. Each case is cached for the OAuth token it was read with and only
+ * returned to callers with the same token, as CCD may show another user a different case or none at all.
+ * Entries are replaced by the result of every submit made through this library, and every entry for a case
+ * is dropped when a submit of it starts or a newer lastModified is seen. Cases are copied on the way in and
+ * out, so callers may change the cases they are given. Nothing is cached unless {@code ccd.case-cache.enabled}
+ * is true.
+ */
+@Slf4j
+@Component
+public class SscsCaseDetailsCache {
+
+    static final String REQUESTS_METRIC = "ccd.case-cache.requests";
+    static final String SIZE_METRIC = "ccd.case-cache.size";
+
+    private final SscsCcdConvertService sscsCcdConvertService;
+    private final boolean enabled;
+    private final Cache<Key, SscsCaseDetails> cases;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public SscsCaseDetailsCache(SscsCcdConvertService sscsCcdConvertService,
+                                ObjectProvider<MeterRegistry> meterRegistry,
+                                @Value("${ccd.case-cache.enabled:false}") boolean enabled,
+                                @Value("${ccd.case-cache.ttl-ms:5000}") long ttlMs,
+                                @Value("${ccd.case-cache.max-size:1000}") long maxSize) {
+        this(sscsCcdConvertService, meterRegistry.getIfAvailable(SimpleMeterRegistry::new), enabled,
+                Duration.ofMillis(ttlMs), maxSize, Ticker.systemTicker());
+    }
+
+    SscsCaseDetailsCache(SscsCcdConvertService sscsCcdConvertService, MeterRegistry meterRegistry, boolean enabled,
+                         Duration ttl, long maxSize, Ticker ticker) {
+        this.sscsCcdConvertService = sscsCcdConvertService;
+        this.enabled = enabled;
+        this.cases = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .build();
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        meterRegistry.gauge(SIZE_METRIC, cases, Cache::size);
+    }
+
+    public static SscsCaseDetailsCache disabled() {
+        return new SscsCaseDetailsCache(new SscsCcdConvertService(), new SimpleMeterRegistry(), false,
+                Duration.ZERO, 0, Ticker.systemTicker());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The case cached for the caller's token. Used by the read from CCD that follows a miss, so it is the one
+     * place a miss is counted.
+     */
+    public Optional<SscsCaseDetails> get(Long caseId, IdamTokens idamTokens) {
+        Key key = keyOf(caseId, idamTokens);
+        if (key == null) {
+            return Optional.empty();
+        }
+        SscsCaseDetails cached = cases.getIfPresent(key);
+        (cached != null ? hits : misses).increment();
+        return Optional.ofNullable(sscsCcdConvertService.copyOf(cached));
+    }
+
+    /**
+     * The case cached for the caller's token if it was last modified at the given time. A cached case with any
+     * other lastModified is out of date, or the given time is, so every entry for the case is dropped. Only hits
+     * are counted, as a miss is followed by a read through {@link #get(Long, IdamTokens)}.
+     */
+    public Optional<SscsCaseDetails> getIfCurrent(Long caseId, LocalDateTime lastModified, IdamTokens idamTokens) {
+        Key key = keyOf(caseId, idamTokens);
+        if (key == null) {
+            return Optional.empty();
+        }
+        SscsCaseDetails cached = cases.getIfPresent(key);
+        if (cached != null && lastModified != null && lastModified.equals(cached.getLastModified())) {
+            hits.increment();
+            return Optional.of(sscsCcdConvertService.copyOf(cached));
+        }
+        if (cached != null) {
+            log.debug("Cached caseId {} was last modified {} not {}", caseId, cached.getLastModified(), lastModified);
+            invalidate(caseId);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Caches a copy of the case for the caller's token, unless a version of it modified later is already cached
+     * for that token.
+     */
+    public void put(SscsCaseDetails caseDetails, IdamTokens idamTokens) {
+        if (caseDetails == null || caseDetails.getData() == null) {
+            return;
+        }
+        Key key = keyOf(caseDetails.getId(), idamTokens);
+        if (key == null) {
+            return;
+        }
+        SscsCaseDetails copy = sscsCcdConvertService.copyOf(caseDetails);
+        cases.asMap().merge(key, copy, (cached, update) -> isNewer(cached, update) ? cached : update);
+    }
+
+    /**
+     * Drops the case whichever token it was cached for. This looks at every entry, which is cheap at the sizes
+     * the cache is bounded to.
+     */
+    public void invalidate(Long caseId) {
+        if (enabled && caseId != null) {
+            cases.asMap().keySet().removeIf(key -> key.caseId().equals(caseId));
+        }
+    }
+
+    public void invalidateAll() {
+        cases.invalidateAll();
+    }
+
+    private Key keyOf(Long caseId, IdamTokens idamTokens) {
+        if (!enabled || caseId == null || idamTokens == null || idamTokens.getIdamOauth2Token() == null) {
+            return null;
+        }
+        return new Key(caseId, idamTokens.getIdamOauth2Token());
+    }
+
+    private static boolean isNewer(SscsCaseDetails cached, SscsCaseDetails update) {
+        return cached.getLastModified() != null && update.getLastModified() != null
+                && cached.getLastModified().isAfter(update.getLastModified());
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(REQUESTS_METRIC)
+                .description("Lookups of cases in the CCD case cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Key(Long caseId, String idamOauth2Token) {
+    }
+}
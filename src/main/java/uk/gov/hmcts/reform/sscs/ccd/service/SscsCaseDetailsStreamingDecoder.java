@@ -0,0 +1,234 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+import uk.gov.hmcts.reform.ccd.client.model.Classification;
+import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
+import uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.exception.CcdDeserializationException;
+
+/**
+ * Decodes CCD response bodies straight into {@link SscsCaseDetails} with a token streaming parser, so the
+ * case data is bound once into {@link SscsCaseData} without first being materialised as an untyped map.
+ */
+@Component
+@Slf4j
+public class SscsCaseDetailsStreamingDecoder {
+
+    private final ObjectReader caseDataReader;
+    private final ObjectReader dateTimeReader;
+    private final ObjectReader classificationReader;
+
+    @Autowired
+    public SscsCaseDetailsStreamingDecoder(SscsCaseDataConverter sscsCaseDataConverter) {
+        this.caseDataReader = sscsCaseDataConverter.getCaseDataReader();
+        this.dateTimeReader = caseDataReader.forType(LocalDateTime.class);
+        this.classificationReader = caseDataReader.forType(Classification.class);
+    }
+
+    public SscsCaseDetails decodeCaseDetails(InputStream body) {
+        try (JsonParser parser = caseDataReader.createParser(body)) {
+            return parser.nextToken() == JsonToken.START_OBJECT ? readCaseDetails(parser, null) : null;
+        } catch (IOException e) {
+            throw deserializationFailure(e);
+        }
+    }
+
+    public SscsCaseDetails decodeStartEvent(InputStream body) {
+        try (JsonParser parser = caseDataReader.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            SscsCaseDetails caseDetails = null;
+            String eventId = null;
+            String token = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "case_details" -> caseDetails = value == JsonToken.START_OBJECT ? readCaseDetails(parser, null) : null;
+                    case "event_id" -> eventId = parser.getValueAsString();
+                    case "token" -> token = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+            if (caseDetails != null) {
+                caseDetails.setEventId(eventId);
+                caseDetails.setEventToken(token);
+            }
+            return caseDetails;
+        } catch (IOException e) {
+            throw deserializationFailure(e);
+        }
+    }
+
+    /**
+     * Decodes a start event response without its case data, for callers that only need the event token and
+     * the case metadata. The case data is skipped over in the stream rather than bound.
+     */
+    public StartEventResponse decodeStartEventMetadata(InputStream body) {
+        try (JsonParser parser = caseDataReader.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            StartEventResponse.StartEventResponseBuilder builder = StartEventResponse.builder();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "case_details" -> builder.caseDetails(value == JsonToken.START_OBJECT ? readCaseMetadata(parser) : null);
+                    case "event_id" -> builder.eventId(parser.getValueAsString());
+                    case "token" -> builder.token(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw deserializationFailure(e);
+        }
+    }
+
+    public List<SscsCaseDetails> decodeSearchResult(InputStream body) {
+        return decodeSearchResult(body, null);
+    }
+
+    /**
+     * Decodes the cases in a search result whose metadata passes the filter. The case data of each hit is
+     * held as tokens until its metadata has been read, and only bound for the hits that are kept.
+     */
+    public List<SscsCaseDetails> decodeSearchResult(InputStream body, Predicate<CaseDetails> metadataFilter) {
+        Predicate<SscsCaseDetails> keep = metadataFilter == null
+                ? null
+                : CaseMetadataPredicates.onSscsCaseDetails(metadataFilter);
+        try (JsonParser parser = caseDataReader.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            List<SscsCaseDetails> cases = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("cases".equals(field) && value == JsonToken.START_ARRAY) {
+                    cases = new ArrayList<>();
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        SscsCaseDetails caseDetails = readCaseDetails(parser, keep);
+                        if (caseDetails != null) {
+                            cases.add(caseDetails);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return cases;
+        } catch (IOException e) {
+            throw deserializationFailure(e);
+        }
+    }
+
+    /**
+     * Reads one case, or returns null when {@code keep} is given and rejects its metadata, in which case its
+     * case data is never bound.
+     */
+    private SscsCaseDetails readCaseDetails(JsonParser parser, Predicate<SscsCaseDetails> keep) throws IOException {
+        SscsCaseDetails.SscsCaseDetailsBuilder builder = SscsCaseDetails.builder();
+        SscsCaseData caseData = null;
+        TokenBuffer unboundCaseData = null;
+        Long id = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "id" -> id = parser.getValueAsLong();
+                case "jurisdiction" -> builder.jurisdiction(parser.getValueAsString());
+                case "case_type_id", "case_type" -> builder.caseTypeId(parser.getValueAsString());
+                case "created_date" -> builder.createdDate(dateTimeReader.readValue(parser));
+                case "last_modified" -> builder.lastModified(dateTimeReader.readValue(parser));
+                case "state" -> builder.state(parser.getValueAsString());
+                case "locked_by_user_id" -> builder.lockedBy(parser.getValueAsInt());
+                case "security_level" -> builder.securityLevel(parser.getValueAsInt());
+                case "case_data", "data" -> {
+                    if (keep == null) {
+                        caseData = caseDataReader.readValue(parser);
+                    } else {
+                        unboundCaseData = new TokenBuffer(parser);
+                        unboundCaseData.copyCurrentStructure(parser);
+                    }
+                }
+                case "security_classification" -> builder.securityClassification(classificationReader.readValue(parser));
+                case "callback_response_status" -> builder.callbackResponseStatus(parser.getValueAsString());
+                default -> parser.skipChildren();
+            }
+        }
+
+        SscsCaseDetails caseDetails = builder.id(id).build();
+        if (keep != null) {
+            if (!keep.test(caseDetails)) {
+                return null;
+            }
+            if (unboundCaseData != null) {
+                try (JsonParser caseDataParser = unboundCaseData.asParser()) {
+                    caseData = caseDataReader.readValue(caseDataParser);
+                }
+            }
+        }
+
+        if (id != null) {
+            if (caseData == null) {
+                caseData = SscsCaseData.builder().build();
+            }
+            caseData.setCcdCaseId(id.toString());
+        }
+        SscsCcdConvertService.normaliseCaseData(caseData);
+        log.info("Decoded case details for id {}", id);
+
+        caseDetails.setData(caseData);
+        return caseDetails;
+    }
+
+    private CaseDetails readCaseMetadata(JsonParser parser) throws IOException {
+        CaseDetails.CaseDetailsBuilder builder = CaseDetails.builder();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "id" -> builder.id(parser.getValueAsLong());
+                case "jurisdiction" -> builder.jurisdiction(parser.getValueAsString());
+                case "case_type_id", "case_type" -> builder.caseTypeId(parser.getValueAsString());
+                case "created_date" -> builder.createdDate(dateTimeReader.readValue(parser));
+                case "last_modified" -> builder.lastModified(dateTimeReader.readValue(parser));
+                case "state" -> builder.state(parser.getValueAsString());
+                default -> parser.skipChildren();
+            }
+        }
+        return builder.build();
+    }
+
+    private CcdDeserializationException deserializationFailure(IOException e) {
+        CcdDeserializationException ccdDeserializationException = new CcdDeserializationException(e);
+        log.error("Error occurred when streaming a CCD response into SscsCaseDetails", ccdDeserializationException);
+        return ccdDeserializationException;
+    }
+}
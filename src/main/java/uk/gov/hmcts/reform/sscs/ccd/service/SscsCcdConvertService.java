@@ -2,15 +2,12 @@ package uk.gov.hmcts.reform.sscs.ccd.service;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
@@ -38,6 +35,17 @@ public class SscsCcdConvertService {
         }
     };
 
+    private final SscsCaseDataConverter sscsCaseDataConverter;
+
+    public SscsCcdConvertService() {
+        this(new SscsCaseDataConverter());
+    }
+
+    @Autowired
+    public SscsCcdConvertService(SscsCaseDataConverter sscsCaseDataConverter) {
+        this.sscsCaseDataConverter = sscsCaseDataConverter;
+    }
+
     public CaseDataContent getCaseDataContent(SscsCaseData caseData, StartEventResponse startEventResponse,
                                                String summary, String description) {
         log.info("getCaseDataContent for case id {}", caseData.getCcdCaseId());
@@ -53,6 +61,23 @@ public class SscsCcdConvertService {
                 .build();
     }
 
+    /**
+     * Builds the content of a submit that only sends the given top-level case data fields.
+     */
+    public CaseDataContent getCaseDataDeltaContent(Map<String, Object> changedFields, StartEventResponse startEventResponse,
+                                                    String summary, String description) {
+        return CaseDataContent.builder()
+                .eventToken(startEventResponse.getToken())
+                .event(Event.builder()
+                        .id(startEventResponse.getEventId())
+                        .summary(summary)
+                        .description(description)
+                        .build())
+                .data(changedFields)
+                .supplementaryDataRequest(supplementaryDataRequestMap)
+                .build();
+    }
+
     public CaseDataContent getCaseDataContent(String eventToken, String eventId, SscsCaseData caseData, String summary, 
                                                String description) {
         return CaseDataContent.builder()
@@ -120,19 +145,20 @@ public class SscsCcdConvertService {
                 .build();
     }
 
+    /**
+     * A copy of the case details that shares no mutable state with them.
+     */
+    public SscsCaseDetails copyOf(SscsCaseDetails caseDetails) {
+        if (caseDetails == null) {
+            return null;
+        }
+        return caseDetails.toBuilder().data(sscsCaseDataConverter.copyOf(caseDetails.getData())).build();
+    }
+
     public SscsCaseData getCaseData(Map<String, Object> dataMap) {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
-        mapper.configure(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL, true);
-        mapper.findAndRegisterModules();
         try {
-            SscsCaseData sscsCaseData = mapper.convertValue(dataMap, SscsCaseData.class);
-            if (hasAppellantIdentify(sscsCaseData)) {
-                sscsCaseData.getAppeal().getAppellant().getIdentity().setNino(
-                    normaliseNino(sscsCaseData.getAppeal().getAppellant().getIdentity().getNino())
-                );
-                sscsCaseData.sortCollections();
-            }
+            SscsCaseData sscsCaseData = sscsCaseDataConverter.toCaseData(dataMap);
+            normaliseCaseData(sscsCaseData);
             return sscsCaseData;
         } catch (Exception e) {
             CcdDeserializationException ccdDeserializationException = new CcdDeserializationException(e);
@@ -142,8 +168,16 @@ public class SscsCcdConvertService {
     }
 
     public Map<String, Object> getCaseDataMap(SscsCaseData caseData) {
-        return new ObjectMapper().registerModule(new JavaTimeModule())
-                .convertValue(caseData, new TypeReference<>(){});
+        return sscsCaseDataConverter.toDataMap(caseData);
+    }
+
+    static void normaliseCaseData(SscsCaseData sscsCaseData) {
+        if (hasAppellantIdentify(sscsCaseData)) {
+            sscsCaseData.getAppeal().getAppellant().getIdentity().setNino(
+                normaliseNino(sscsCaseData.getAppeal().getAppellant().getIdentity().getNino())
+            );
+            sscsCaseData.sortCollections();
+        }
     }
 
     public static boolean hasAppellantIdentify(SscsCaseData sscsCaseData) {
@@ -0,0 +1,135 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static org.apache.commons.lang3.StringUtils.trim;
+import static org.apache.commons.lang3.StringUtils.upperCase;
+import static uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates.DRAFT_STATES;
+import static uk.gov.hmcts.reform.sscs.ccd.service.CcdQuery.bool;
+import static uk.gov.hmcts.reform.sscs.ccd.service.CcdQuery.match;
+import static uk.gov.hmcts.reform.sscs.ccd.service.CcdQuery.term;
+import static uk.gov.hmcts.reform.sscs.ccd.service.CcdQuery.terms;
+import static uk.gov.hmcts.reform.sscs.ccd.service.SscsCcdConvertService.normaliseNino;
+
+import java.util.Arrays;
+import java.util.Collection;
+import org.apache.commons.text.StringEscapeUtils;
+import uk.gov.hmcts.reform.sscs.ccd.domain.State;
+
+/**
+ * The queries of {@link SscsQueryBuilder} built with {@link CcdQuery}, matching the same cases without needing
+ * the Elasticsearch server classes. Pass them to {@code CcdService.findCaseByQuery}.
+ *
+ * <p>The {@code Filter} variants look up exact values on the keyword sub-fields CCD indexes text fields with,
+ * in filter context, so Elasticsearch neither analyses nor scores them and can cache the filters. Unlike the
+ * match queries they are case sensitive, so values must be given as CCD holds them.
+ */
+public final class SscsQueries {
+
+    private static final String[] TYA_FIELDS = {
+        "data.subscriptions.appellantSubscription.tya",
+        "data.subscriptions.appointeeSubscription.tya",
+        "data.subscriptions.representativeSubscription.tya",
+        "data.subscriptions.jointPartySubscription.tya",
+        "data.otherParties.value.otherPartySubscription.tya",
+        "data.otherParties.value.otherPartyAppointeeSubscription.tya",
+        "data.otherParties.value.otherPartyRepresentativeSubscription.tya"
+    };
+
+    private static final String KEYWORD = ".keyword";
+
+    private SscsQueries() {
+    }
+
+    public static CcdQuery.Search findCaseBySingleField(String fieldName, String value) {
+        String escapeValue = StringEscapeUtils.escapeJava(StringEscapeUtils.escapeJson(value));
+        return CcdQuery.search(bool().must(match(fieldName, escapeValue).and()));
+    }
+
+    /**
+     * Limits the query's hits to the case metadata and the given case data fields.
+     */
+    public static CcdQuery.Search withCaseDataProjection(CcdQuery.Search search, Collection<String> caseDataFields) {
+        return search.source(Arrays.asList(CcdSearchQueries.sourceIncludes(caseDataFields)));
+    }
+
+    public static CcdQuery.Search findCaseByTyaNumberQuery(String value) {
+        CcdQuery.Bool query = bool();
+        for (String field : TYA_FIELDS) {
+            query.should(match(field, value));
+        }
+        return CcdQuery.search(query);
+    }
+
+    public static CcdQuery.Search findCcdCaseByNinoAndBenefitTypeAndMrnDateQuery(String nino, String benefitType, String mrnDate) {
+        return CcdQuery.search(bool()
+                .must(match("data.appeal.appellant.identity.nino", nino))
+                .must(match("data.appeal.benefitType.code", benefitType))
+                .must(match("data.appeal.mrnDetails.mrnDate", mrnDate)));
+    }
+
+    public static CcdQuery.Search findCaseByResponseReceivedStateAndNoDwpFurtherInfoAndLastModifiedDateQuery(String date) {
+        return CcdQuery.search(bool()
+                .must(match("state", State.RESPONSE_RECEIVED.getId()))
+                .must(match("data.dwpFurtherInfo", "No"))
+                .must(match("last_state_modified_date", date)));
+    }
+
+    public static CcdQuery.Search findCaseBySingleFieldFilter(String fieldName, String value) {
+        return CcdQuery.search(bool().filter(term(fieldName + KEYWORD, value)));
+    }
+
+    /**
+     * The first submitted case with the TYA number in any subscription. Draft cases are excluded in the query,
+     * so that the one hit asked for is not a draft.
+     */
+    public static CcdQuery.Search findCaseByTyaNumberFilter(String value) {
+        CcdQuery.Bool anySubscription = bool().minimumShouldMatch(1);
+        for (String field : TYA_FIELDS) {
+            anySubscription.should(term(field + KEYWORD, value));
+        }
+        return CcdQuery.search(bool()
+                        .filter(anySubscription)
+                        .mustNot(terms("state", DRAFT_STATES)))
+                .size(1)
+                .trackTotalHitsUpTo(1);
+    }
+
+    /**
+     * The first submitted case for the NINO, benefit type and MRN date. The MRN date is a date field, which
+     * is matched on its own rather than a keyword sub-field. The NINO and benefit code are normalised as they
+     * are stored, as the keyword terms are case and whitespace sensitive.
+     */
+    public static CcdQuery.Search findCcdCaseByNinoAndBenefitTypeAndMrnDateFilter(String nino, String benefitType, String mrnDate) {
+        return CcdQuery.search(bool()
+                        .filter(term("data.appeal.appellant.identity.nino" + KEYWORD, normaliseNino(nino)))
+                        .filter(term("data.appeal.benefitType.code" + KEYWORD, upperCase(trim(benefitType))))
+                        .filter(term("data.appeal.mrnDetails.mrnDate", mrnDate))
+                        .mustNot(terms("state", DRAFT_STATES)))
+                .size(1)
+                .trackTotalHitsUpTo(1);
+    }
+
+    /**
+     * The submitted cases with any of the TYA numbers in any subscription, in one search.
+     */
+    public static CcdQuery.Search findCasesByTyaNumbersFilter(Collection<String> tyaNumbers) {
+        CcdQuery.Bool anySubscription = bool().minimumShouldMatch(1);
+        for (String field : TYA_FIELDS) {
+            anySubscription.should(terms(field + KEYWORD, tyaNumbers));
+        }
+        return CcdQuery.search(bool()
+                .filter(anySubscription)
+                .mustNot(terms("state", DRAFT_STATES)));
+    }
+
+    public static CcdQuery.Search findCasesByCaseReferencesFilter(Collection<String> caseReferences) {
+        return CcdQuery.search(bool()
+                .filter(terms("data.caseReference" + KEYWORD, caseReferences))
+                .mustNot(terms("state", DRAFT_STATES)));
+    }
+
+    public static CcdQuery.Search findCasesByNinosFilter(Collection<String> ninos) {
+        return CcdQuery.search(bool()
+                .filter(terms("data.appeal.appellant.identity.nino" + KEYWORD, ninos))
+                .mustNot(terms("state", DRAFT_STATES)));
+    }
+}
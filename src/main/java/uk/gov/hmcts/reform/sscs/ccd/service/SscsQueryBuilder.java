@@ -2,6 +2,7 @@ package uk.gov.hmcts.reform.sscs.ccd.service;
 
 import static org.elasticsearch.index.query.QueryBuilders.matchQuery;
 
+import java.util.Collection;
 import org.apache.commons.text.StringEscapeUtils;
 import org.elasticsearch.index.query.Operator;
 import org.elasticsearch.index.query.QueryBuilders;
@@ -21,6 +22,14 @@ public class SscsQueryBuilder {
         return searchBuilder;
     }
 
+    /**
+     * Limits the query's hits to the case metadata and the given case data fields, so CCD only returns
+     * and the caller only binds what it needs.
+     */
+    public static SearchSourceBuilder withCaseDataProjection(SearchSourceBuilder searchBuilder, Collection<String> caseDataFields) {
+        return searchBuilder.fetchSource(CcdSearchQueries.sourceIncludes(caseDataFields), null);
+    }
+
     public static SearchSourceBuilder findCaseByTyaNumberQuery(String value) {
         SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
 
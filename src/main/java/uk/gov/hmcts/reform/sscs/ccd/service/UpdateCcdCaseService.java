@@ -16,7 +16,7 @@ import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 import uk.gov.hmcts.reform.sscs.ccd.client.CcdClient;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
-import uk.gov.hmcts.reform.sscs.exception.ExitRetryableException;
+import uk.gov.hmcts.reform.sscs.exception.CaseModifiedConcurrentlyException;
 import uk.gov.hmcts.reform.sscs.idam.IdamService;
 import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
 
@@ -24,22 +24,46 @@ import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
 @Service
 public class UpdateCcdCaseService {
 
+    private static final String DYNAMIC_EVENT = "dynamicEvent";
+
     private final IdamService idamService;
     private final SscsCcdConvertService sscsCcdConvertService;
     private final CcdClient ccdClient;
     private final ReadCcdCaseService readCcdCaseService;
+    private final CcdUpdateExecutor ccdUpdateExecutor;
+    private final CaseDataDeltaService caseDataDeltaService;
+    private final SscsCaseDetailsCache sscsCaseDetailsCache;
 
-    @Autowired
     public UpdateCcdCaseService(IdamService idamService,
                                 SscsCcdConvertService sscsCcdConvertService,
                                 CcdClient ccdClient, ReadCcdCaseService readCcdCaseService) {
+        this(idamService, sscsCcdConvertService, ccdClient, readCcdCaseService,
+                new CcdUpdateExecutor(), new CaseDataDeltaService());
+    }
+
+    public UpdateCcdCaseService(IdamService idamService,
+                                SscsCcdConvertService sscsCcdConvertService,
+                                CcdClient ccdClient, ReadCcdCaseService readCcdCaseService,
+                                CcdUpdateExecutor ccdUpdateExecutor, CaseDataDeltaService caseDataDeltaService) {
+        this(idamService, sscsCcdConvertService, ccdClient, readCcdCaseService, ccdUpdateExecutor, caseDataDeltaService,
+                SscsCaseDetailsCache.disabled());
+    }
+
+    @Autowired
+    public UpdateCcdCaseService(IdamService idamService,
+                                SscsCcdConvertService sscsCcdConvertService,
+                                CcdClient ccdClient, ReadCcdCaseService readCcdCaseService,
+                                CcdUpdateExecutor ccdUpdateExecutor, CaseDataDeltaService caseDataDeltaService,
+                                SscsCaseDetailsCache sscsCaseDetailsCache) {
         this.idamService = idamService;
         this.sscsCcdConvertService = sscsCcdConvertService;
         this.ccdClient = ccdClient;
         this.readCcdCaseService = readCcdCaseService;
+        this.ccdUpdateExecutor = ccdUpdateExecutor;
+        this.caseDataDeltaService = caseDataDeltaService;
+        this.sscsCaseDetailsCache = sscsCaseDetailsCache;
     }
 
-    @Retryable
     public SscsCaseDetails updateCaseV2(Long caseId, String eventType, String summary, String description, IdamTokens idamTokens, Consumer<SscsCaseDetails> mutator) {
         return updateCaseV2(caseId, eventType, idamTokens, caseDetails -> {
             mutator.accept(caseDetails);
@@ -47,7 +71,6 @@ public class UpdateCcdCaseService {
         });
     }
 
-    @Retryable
     public SscsCaseDetails updateCaseV2WithUnaryFunction(Long caseId, String eventType, String summary, String description, IdamTokens idamTokens, UnaryOperator<SscsCaseDetails> mutator) {
         return updateCaseV2(caseId, eventType, idamTokens, caseDetails -> {
             SscsCaseDetails sscsCaseDetails = mutator.apply(caseDetails);
@@ -55,23 +78,13 @@ public class UpdateCcdCaseService {
         });
     }
 
-    @Recover
-    public SscsCaseDetails recoverUpdateCaseV2WithUnaryFunction(RuntimeException exception, Long caseId, String eventType, String summary, String description, IdamTokens idamTokens, UnaryOperator<SscsCaseDetails> mutator) {
-        log.error("In recover method(updateCaseV2WithUnaryFunction) for caseId {} and eventType {}",
-                caseId,
-                eventType,
-                exception);
-        throw exception;
-    }
-
     public SscsCaseDetails updateCaseV2WithoutRetry(Long caseId, String eventType, String summary, String description, IdamTokens idamTokens, Consumer<SscsCaseDetails> mutator) {
-        return updateCaseV2(caseId, eventType, idamTokens, caseDetails -> {
+        return submitCaseV2(caseId, eventType, idamTokens, caseDetails -> {
             mutator.accept(caseDetails);
             return new UpdateResult(summary, description);
         });
     }
 
-    @Retryable
     public SscsCaseDetails triggerCaseEventV2(Long caseId, String eventType, String summary, String description, IdamTokens idamTokens) {
         return updateCaseV2(caseId, eventType, idamTokens, caseDetails -> new UpdateResult(summary, description));
     }
@@ -86,9 +99,13 @@ public class UpdateCcdCaseService {
      * Update a case while making correct use of CCD's optimistic locking.
      * Changes can be made to case data by the provided consumer which will always be provided
      * the current version of case data from CCD's start event.
+     * Conflicting and transiently failing updates are retried by {@link CcdUpdateExecutor}.
      */
-    @Retryable
     public SscsCaseDetails updateCaseV2(Long caseId, String eventType, IdamTokens idamTokens, Function<SscsCaseDetails, UpdateResult> mutator) {
+        return ccdUpdateExecutor.execute(caseId, eventType, () -> submitCaseV2(caseId, eventType, idamTokens, mutator));
+    }
+
+    private SscsCaseDetails submitCaseV2(Long caseId, String eventType, IdamTokens idamTokens, Function<SscsCaseDetails, UpdateResult> mutator) {
         log.info("UpdateCaseV2 for caseId {} and eventType {}", caseId, eventType);
         StartEventResponse startEventResponse = ccdClient.startEvent(idamTokens, caseId, eventType);
         SscsCaseDetails caseDetails = sscsCcdConvertService.getCaseDetails(startEventResponse);
@@ -100,6 +117,7 @@ public class UpdateCcdCaseService {
          */
         data.setCcdCaseId(caseId.toString());
         data.sortCollections();
+        Map<String, Object> snapshot = caseDataDeltaService.snapshot(eventType, data);
 
         var result = mutator.apply(caseDetails);
         SscsCaseData sscsCaseData = caseDetails.getData();
@@ -108,9 +126,9 @@ public class UpdateCcdCaseService {
             sscsCaseData = result.sscsCaseDetails.getData();
         }
 
-        CaseDataContent caseDataContent = sscsCcdConvertService.getCaseDataContent(sscsCaseData, startEventResponse, result.summary, result.description);
+        CaseDataContent caseDataContent = getCaseDataContent(caseId, eventType, snapshot, sscsCaseData, startEventResponse, result.summary, result.description);
 
-        return sscsCcdConvertService.getCaseDetails(ccdClient.submitEventForCaseworker(idamTokens, caseId, caseDataContent));
+        return submit(idamTokens, caseId, caseDataContent);
     }
 
     public record ConditionalUpdateResult(String summary, String description, Boolean willCommit) { }
@@ -121,8 +139,11 @@ public class UpdateCcdCaseService {
      * Changes can be made to case data by the provided consumer which will always be provided
      * the current version of case data from CCD's start event.
      */
-    @Retryable
     public Optional<SscsCaseDetails> updateCaseV2Conditional(Long caseId, String eventType, IdamTokens idamTokens, Function<SscsCaseDetails, ConditionalUpdateResult> mutator) {
+        return ccdUpdateExecutor.execute(caseId, eventType, () -> submitCaseV2Conditional(caseId, eventType, idamTokens, mutator));
+    }
+
+    private Optional<SscsCaseDetails> submitCaseV2Conditional(Long caseId, String eventType, IdamTokens idamTokens, Function<SscsCaseDetails, ConditionalUpdateResult> mutator) {
         log.info("UpdateCaseV2 for caseId {} and eventType {}", caseId, eventType);
         StartEventResponse startEventResponse = ccdClient.startEvent(idamTokens, caseId, eventType);
         SscsCaseDetails caseDetails = sscsCcdConvertService.getCaseDetails(startEventResponse);
@@ -134,16 +155,29 @@ public class UpdateCcdCaseService {
          */
         data.setCcdCaseId(caseId.toString());
         data.sortCollections();
+        Map<String, Object> snapshot = caseDataDeltaService.snapshot(eventType, data);
 
         var result = mutator.apply(caseDetails);
         if (result.willCommit()) {
-            CaseDataContent caseDataContent = sscsCcdConvertService.getCaseDataContent(caseDetails.getData(), startEventResponse, result.summary, result.description);
-            return Optional.of(sscsCcdConvertService.getCaseDetails(ccdClient.submitEventForCaseworker(idamTokens, caseId, caseDataContent)));
+            CaseDataContent caseDataContent = getCaseDataContent(caseId, eventType, snapshot, caseDetails.getData(), startEventResponse, result.summary, result.description);
+            return Optional.of(submit(idamTokens, caseId, caseDataContent));
         } else {
             return Optional.empty();
         }
     }
 
+    /**
+     * Submits only the fields changed since the snapshot when there is one, see {@link CaseDataDeltaService}.
+     */
+    private CaseDataContent getCaseDataContent(Long caseId, String eventType, Map<String, Object> snapshot, SscsCaseData caseData,
+                                               StartEventResponse startEventResponse, String summary, String description) {
+        if (snapshot == null) {
+            return sscsCcdConvertService.getCaseDataContent(caseData, startEventResponse, summary, description);
+        }
+        Map<String, Object> changedFields = caseDataDeltaService.changedFields(caseId, eventType, snapshot, caseData);
+        return sscsCcdConvertService.getCaseDataDeltaContent(changedFields, startEventResponse, summary, description);
+    }
+
     public record DynamicEventUpdateResult(String summary, String description, Boolean willCommit, String eventType) { }
 
     // prob of a concurrency event happening * prob of that event or data changes the postponement field in case data (potentially resulting in different event)
@@ -152,12 +186,26 @@ public class UpdateCcdCaseService {
      * Update a case while making correct use of CCD's optimistic locking,
      * when event is dyanamic can be made to case data by the provided mutator which will always be provided
      * the current version of case data from CCD's start event.
+     * A mutator can throw {@link uk.gov.hmcts.reform.sscs.exception.ExitRetryableException} to stop without retrying.
      */
-    @Retryable(exclude = ExitRetryableException.class)
     public Optional<SscsCaseDetails> updateCaseV2DynamicEvent(Long caseId, IdamTokens idamTokens, Function<SscsCaseDetails, DynamicEventUpdateResult> mutator) {
-        LocalDateTime initialLastModified;
-        LocalDateTime latestLastModified;
+        return ccdUpdateExecutor.execute(caseId, DYNAMIC_EVENT, () -> submitCaseV2DynamicEvent(caseId, idamTokens, mutator));
+    }
 
+    /**
+     * As {@link #updateCaseV2DynamicEvent(Long, IdamTokens, Function)}, but runs the mutator on the case returned
+     * by starting {@code provisionalEventType} rather than on a separate read. When the mutator chooses that event,
+     * it is submitted with the token from the same call, so the case is fetched from CCD once whether or not
+     * streaming decode is on. When it chooses another event, that event is started for its token as
+     * {@link #updateCaseV2DynamicEvent(Long, IdamTokens, Function)} does.
+     */
+    public Optional<SscsCaseDetails> updateCaseV2DynamicEvent(Long caseId, String provisionalEventType, IdamTokens idamTokens,
+                                                              Function<SscsCaseDetails, DynamicEventUpdateResult> mutator) {
+        return ccdUpdateExecutor.execute(caseId, DYNAMIC_EVENT,
+                () -> submitCaseV2ProvisionalEvent(caseId, provisionalEventType, idamTokens, mutator));
+    }
+
+    private Optional<SscsCaseDetails> submitCaseV2DynamicEvent(Long caseId, IdamTokens idamTokens, Function<SscsCaseDetails, DynamicEventUpdateResult> mutator) {
         SscsCaseDetails initialCaseDetails = readCcdCaseService.getByCaseId(caseId, idamTokens);
         SscsCaseData caseData = initialCaseDetails.getData();
 
@@ -168,29 +216,88 @@ public class UpdateCcdCaseService {
         caseData.setCcdCaseId(caseId.toString());
         caseData.sortCollections();
 
-        initialLastModified = initialCaseDetails.getLastModified();
-
         DynamicEventUpdateResult dynamicEventUpdateResult = mutator.apply(initialCaseDetails);
 
         if (dynamicEventUpdateResult.willCommit()) {
+            return Optional.of(startAndSubmitDynamicEvent(caseId, idamTokens, caseData, initialCaseDetails.getLastModified(), dynamicEventUpdateResult));
+        } else {
+            return Optional.empty();
+        }
+    }
 
-            String eventType = dynamicEventUpdateResult.eventType;
-
-            log.info("UpdateCaseV2 for caseId {} and eventType {}", caseId, eventType);
-            StartEventResponse startEventResponse = ccdClient.startEvent(idamTokens, caseId, eventType);
-            SscsCaseDetails latestCaseDetails = sscsCcdConvertService.getCaseDetails(startEventResponse);
+    private Optional<SscsCaseDetails> submitCaseV2ProvisionalEvent(Long caseId, String provisionalEventType, IdamTokens idamTokens,
+                                                                   Function<SscsCaseDetails, DynamicEventUpdateResult> mutator) {
+        log.info("UpdateCaseV2 for caseId {} and provisional eventType {}", caseId, provisionalEventType);
+        SscsCaseDetails caseDetails = ccdClient.isStreamingDecodeEnabled()
+                ? ccdClient.startEventForSscsCase(idamTokens, caseId, provisionalEventType)
+                : sscsCcdConvertService.getCaseDetails(ccdClient.startEvent(idamTokens, caseId, provisionalEventType));
+        SscsCaseData caseData = caseDetails.getData();
 
-            latestLastModified = latestCaseDetails.getLastModified();
+        /**
+         * @see uk.gov.hmcts.reform.sscs.ccd.deserialisation.SscsCaseCallbackDeserializer#deserialize(String)
+         * setCcdCaseId & sortCollections are called above, so this functionality has been replicated here preserving existing logic
+         */
+        caseData.setCcdCaseId(caseId.toString());
+        caseData.sortCollections();
 
-            if (!initialLastModified.isEqual(latestLastModified)){
-                throw new RuntimeException();
-            }
+        DynamicEventUpdateResult dynamicEventUpdateResult = mutator.apply(caseDetails);
 
-            CaseDataContent caseDataContent = sscsCcdConvertService.getCaseDataContent(caseData, startEventResponse, dynamicEventUpdateResult.summary, dynamicEventUpdateResult.description);
-            return Optional.of(sscsCcdConvertService.getCaseDetails(ccdClient.submitEventForCaseworker(idamTokens, caseId, caseDataContent)));
-        } else {
+        if (!dynamicEventUpdateResult.willCommit()) {
             return Optional.empty();
         }
+        if (!provisionalEventType.equals(dynamicEventUpdateResult.eventType)) {
+            return Optional.of(startAndSubmitDynamicEvent(caseId, idamTokens, caseData, caseDetails.getLastModified(), dynamicEventUpdateResult));
+        }
+        CaseDataContent caseDataContent = sscsCcdConvertService.getCaseDataContent(caseDetails.getEventToken(), caseDetails.getEventId(),
+                caseData, dynamicEventUpdateResult.summary, dynamicEventUpdateResult.description);
+        return Optional.of(submitDynamicEvent(idamTokens, caseId, provisionalEventType, caseDataContent));
+    }
+
+    /**
+     * Starts the event the mutator chose, for its token, and submits the case data the mutator changed unless
+     * the case was modified after it was read.
+     */
+    private SscsCaseDetails startAndSubmitDynamicEvent(Long caseId, IdamTokens idamTokens, SscsCaseData caseData,
+                                                       LocalDateTime initialLastModified, DynamicEventUpdateResult dynamicEventUpdateResult) {
+        String eventType = dynamicEventUpdateResult.eventType;
+
+        log.info("UpdateCaseV2 for caseId {} and eventType {}", caseId, eventType);
+        StartEventResponse startEventResponse = ccdClient.startEventMetadata(idamTokens, caseId, eventType);
+
+        // only the event token and lastModified are needed, so the case data is not converted a second time
+        LocalDateTime latestLastModified = startEventResponse.getCaseDetails().getLastModified();
+
+        if (!initialLastModified.isEqual(latestLastModified)) {
+            sscsCaseDetailsCache.invalidate(caseId);
+            throw new CaseModifiedConcurrentlyException("Case " + caseId + " was modified before event " + eventType + " started", eventType);
+        }
+
+        CaseDataContent caseDataContent = sscsCcdConvertService.getCaseDataContent(caseData, startEventResponse, dynamicEventUpdateResult.summary, dynamicEventUpdateResult.description);
+        return submitDynamicEvent(idamTokens, caseId, eventType, caseDataContent);
+    }
+
+    private SscsCaseDetails submitDynamicEvent(IdamTokens idamTokens, Long caseId, String eventType, CaseDataContent caseDataContent) {
+        try {
+            return submit(idamTokens, caseId, caseDataContent);
+        } catch (RuntimeException e) {
+            // the executor only knows this update as a dynamic event, so conflicts carry the event type chosen
+            if (CcdUpdateExecutor.isConflict(e)) {
+                throw new CaseModifiedConcurrentlyException("Case " + caseId + " was modified before event " + eventType + " was submitted", eventType, e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Submits the event and caches the case it returns. The cached case is dropped first, so that it is not
+     * kept if the submit fails.
+     */
+    private SscsCaseDetails submit(IdamTokens idamTokens, Long caseId, CaseDataContent caseDataContent) {
+        sscsCaseDetailsCache.invalidate(caseId);
+        SscsCaseDetails caseDetails = sscsCcdConvertService.getCaseDetails(
+                ccdClient.submitEventForCaseworker(idamTokens, caseId, caseDataContent));
+        sscsCaseDetailsCache.put(caseDetails, idamTokens);
+        return caseDetails;
     }
 
     @Retryable
@@ -201,7 +308,7 @@ public class UpdateCcdCaseService {
         StartEventResponse startEventResponse = ccdClient.startEvent(idamTokens, caseId, eventType);
         CaseDataContent caseDataContent = sscsCcdConvertService.getCaseDataContent(caseData, startEventResponse, summary, description);
 
-        return sscsCcdConvertService.getCaseDetails(ccdClient.submitEventForCaseworker(idamTokens, caseId, caseDataContent));
+        return submit(idamTokens, caseId, caseDataContent);
     }
 
     @Deprecated(since = "since 18/10/2024, use updateCaseV2 instead", forRemoval = true)
@@ -210,7 +317,7 @@ public class UpdateCcdCaseService {
         log.info("UpdateCase for caseId {} eventToken {} and eventType {}", caseId, eventToken, eventType);
         CaseDataContent caseDataContent = sscsCcdConvertService.getCaseDataContent(eventToken, eventId, caseData, summary, description);
 
-        return sscsCcdConvertService.getCaseDetails(ccdClient.submitEventForCaseworker(idamTokens, caseId, caseDataContent));
+        return submit(idamTokens, caseId, caseDataContent);
     }
 
     @Deprecated(since = "since 18/10/2024, use updateCaseV2WithoutRetry instead", forRemoval = true)
@@ -220,7 +327,7 @@ public class UpdateCcdCaseService {
         StartEventResponse startEventResponse = ccdClient.startEvent(idamTokens, caseId, eventType);
         CaseDataContent caseDataContent = sscsCcdConvertService.getCaseDataContent(caseData, startEventResponse, summary, description);
 
-        return sscsCcdConvertService.getCaseDetails(ccdClient.submitEventForCaseworker(idamTokens, caseId, caseDataContent));
+        return submit(idamTokens, caseId, caseDataContent);
     }
 
     @Recover
@@ -228,6 +335,9 @@ public class UpdateCcdCaseService {
 
         log.info("Requesting IDAM tokens to update caseId {} with eventType {}", caseId, eventType);
 
+        if (IdamService.isTokenRejected(exception)) {
+            idamService.invalidateTokens();
+        }
         idamTokens = idamService.getIdamTokens();
 
         log.info("Received IDAM tokens for updating caseId {} with eventType {}", caseId, eventType);
@@ -241,13 +351,4 @@ public class UpdateCcdCaseService {
         ccdClient.setSupplementaryData(idamTokens, caseId, supplementaryData);
     }
 
-    /**
-     * Need to provide this so that recoverable/non-recoverable exception doesn't get wrapped in an IllegalArgumentException
-     */
-    @Recover
-    public SscsCaseDetails recoverUpdateCaseV2(RuntimeException exception, Long caseId, String eventType) {
-        log.error("In recover method(recoverUpdateCaseV2) for caseId {} and eventType {}", caseId, eventType);
-       throw exception;
-    }
-
 }
@@ -0,0 +1,54 @@
+package uk.gov.hmcts.reform.sscs.client;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import feign.Response;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * The CCD read, start event and search endpoints of {@link uk.gov.hmcts.reform.ccd.client.CoreCaseDataApi},
+ * returning the raw response so the body can be streamed straight into SSCS case details.
+ */
+@FeignClient(
+        name = "core-case-data-streaming-api",
+        url = "${core_case_data.api.url}"
+)
+public interface CoreCaseDataStreamingApi {
+    String SERVICE_AUTHORIZATION = "ServiceAuthorization";
+
+    @GetMapping("/caseworkers/{uid}/jurisdictions/{jid}/case-types/{ctid}/cases/{cid}")
+    Response readForCaseWorker(
+            @RequestHeader(AUTHORIZATION) String authorisation,
+            @RequestHeader(SERVICE_AUTHORIZATION) String serviceAuthorisation,
+            @PathVariable("uid") String userId,
+            @PathVariable("jid") String jurisdictionId,
+            @PathVariable("ctid") String caseType,
+            @PathVariable("cid") String caseId
+    );
+
+    @GetMapping("/caseworkers/{uid}/jurisdictions/{jid}/case-types/{ctid}/cases/{cid}/event-triggers/{etid}/token")
+    Response startEventForCaseWorker(
+            @RequestHeader(AUTHORIZATION) String authorisation,
+            @RequestHeader(SERVICE_AUTHORIZATION) String serviceAuthorisation,
+            @PathVariable("uid") String userId,
+            @PathVariable("jid") String jurisdictionId,
+            @PathVariable("ctid") String caseType,
+            @PathVariable("cid") String caseId,
+            @PathVariable("etid") String eventId
+    );
+
+    @PostMapping(value = "/searchCases", consumes = APPLICATION_JSON_VALUE)
+    Response searchCases(
+            @RequestHeader(AUTHORIZATION) String authorisation,
+            @RequestHeader(SERVICE_AUTHORIZATION) String serviceAuthorization,
+            @RequestParam("ctid") String caseType,
+            @RequestBody String searchString
+    );
+}
@@ -0,0 +1,25 @@
+package uk.gov.hmcts.reform.sscs.exception;
+
+/**
+ * The case changed in CCD between reading it and starting or submitting the event that updates it.
+ */
+public class CaseModifiedConcurrentlyException extends RuntimeException {
+
+    private static final long serialVersionUID = -3170268467917290441L;
+
+    private final String eventType;
+
+    public CaseModifiedConcurrentlyException(String message, String eventType) {
+        super(message);
+        this.eventType = eventType;
+    }
+
+    public CaseModifiedConcurrentlyException(String message, String eventType, Throwable cause) {
+        super(message, cause);
+        this.eventType = eventType;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+}
@@ -1,6 +1,17 @@
 package uk.gov.hmcts.reform.sscs.idam;
 
+import com.nimbusds.jwt.JWTParser;
+import feign.FeignException;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,21 +30,41 @@ public class IdamService {
 
     public static final int ONE_HOUR = 1000 * 60 * 60;
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final AuthTokenGenerator authTokenGenerator;
 
     private final IdamClient idamClient;
 
     private final AtomicInteger atomicInteger = new AtomicInteger(1);
 
+    /**
+     * Held while a token is fetched from IDAM. A lock rather than a monitor, so that virtual threads waiting
+     * for the fetch do not pin their carrier threads.
+     */
+    private final ReentrantLock tokenLock = new ReentrantLock();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
     @Value("${idam.oauth2.user.email}")
     private String idamOauth2UserEmail;
 
     @Value("${idam.oauth2.user.password}")
     private String idamOauth2UserPassword;
 
-    // Tactical idam token caching solution implemented
-    // SSCS-5895 - will deliver the strategic caching solution
-    private String cachedToken;
+    @Value("${idam.oauth2.token.refresh-ahead-ms:300000}")
+    private long refreshAheadMillis = 300000;
+
+    @Value("${idam.s2s-auth.expiry-margin-ms:60000}")
+    private long serviceAuthorizationExpiryMarginMillis = 60000;
+
+    private Clock clock = Clock.systemUTC();
+
+    private Executor refreshExecutor = task -> Thread.ofVirtual().name("idam-token-refresh").start(task);
+
+    private volatile CachedToken cachedToken;
+
+    private volatile ResolvedTokens resolvedTokens;
 
     @Autowired
     IdamService(AuthTokenGenerator authTokenGenerator, IdamClient idamClient) {
@@ -61,8 +92,12 @@ public class IdamService {
 
     @Retryable
     public String getIdamOauth2Token() {
-        cachedToken = getOpenAccessToken();
-        return cachedToken;
+        tokenLock.lock();
+        try {
+            return fetchToken().value();
+        } finally {
+            tokenLock.unlock();
+        }
     }
 
     @Retryable
@@ -78,34 +113,198 @@ public class IdamService {
         }
     }
 
-    @Scheduled(fixedRate = ONE_HOUR)
-    public void evictCacheAtIntervals() {
-        log.info("Evicting idam token cache");
-        cachedToken = null;
+    /**
+     * Refreshes the cached token once it is within {@code idam.oauth2.token.refresh-ahead-ms} of expiring,
+     * so that callers keep being served a valid token rather than all missing at the moment it expires.
+     */
+    @Scheduled(fixedDelayString = "${idam.oauth2.token.refresh-check-ms:60000}")
+    public void refreshTokenAheadOfExpiry() {
+        CachedToken current = cachedToken;
+        if (current != null && current.isDueForRefresh(clock.instant(), refreshAheadMillis)) {
+            refresh(current);
+        }
     }
 
     @Retryable(backoff = @Backoff(delay = 15000L, multiplier = 1.0, random = true))
     public IdamTokens getIdamTokens() {
         String idamOauth2Token;
 
-        if (StringUtils.isEmpty(cachedToken)) {
+        CachedToken current = cachedToken;
+        Instant now = clock.instant();
+        if (current == null || current.isExpired(now)) {
             log.info("No cached IDAM token found, requesting from IDAM service.");
             log.info("Attempting to obtain token, retry attempt {}", atomicInteger.getAndIncrement());
-            idamOauth2Token =  getIdamOauth2Token();
+            idamOauth2Token = getUnexpiredToken().value();
         } else {
             atomicInteger.set(1);
             log.info("Using cached IDAM token.");
-            idamOauth2Token =  cachedToken;
+            idamOauth2Token = current.value();
+            if (current.isDueForRefresh(now, refreshAheadMillis)) {
+                refreshInBackground(current);
+            }
         }
 
-        UserDetails userDetails = getUserDetails(idamOauth2Token);
+        ResolvedTokens resolved = resolvedTokens;
+        if (resolved == null || !resolved.isFor(idamOauth2Token)) {
+            UserDetails userDetails = getUserDetails(idamOauth2Token);
+            resolved = resolve(idamOauth2Token, userDetails.getId(), userDetails.getEmail(), userDetails.getRoles());
+        } else if (resolved.isServiceAuthorizationExpired(clock.instant())) {
+            IdamTokens tokens = resolved.idamTokens();
+            resolved = resolve(idamOauth2Token, tokens.getUserId(), tokens.getEmail(), tokens.getRoles());
+        }
+        return resolved.idamTokens().copy();
+    }
 
-        return IdamTokens.builder()
+    /**
+     * Drops the cached OAuth token, service authorization and user details, so that the next call to
+     * {@link #getIdamTokens()} gets new ones. Call it when a request made with the cached tokens has failed
+     * and is to be retried with fresh tokens.
+     */
+    public void invalidateTokens() {
+        tokenLock.lock();
+        try {
+            log.info("Invalidating cached IDAM tokens");
+            cachedToken = null;
+            resolvedTokens = null;
+        } finally {
+            tokenLock.unlock();
+        }
+    }
+
+    /**
+     * No longer scheduled, as cached tokens are now kept until they expire and refreshed ahead of expiry.
+     * Kept for callers that still evict the cache themselves.
+     */
+    @Deprecated(since = "since 18/10/2026, use invalidateTokens instead", forRemoval = true)
+    public void evictCacheAtIntervals() {
+        invalidateTokens();
+    }
+
+    /**
+     * True when the failure, or one it was caused by, is IDAM or CCD rejecting the tokens with a 401 or 403,
+     * which is when it is worth invalidating them rather than retrying with the cached ones.
+     */
+    public static boolean isTokenRejected(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof FeignException feignException
+                    && (feignException.status() == 401 || feignException.status() == 403)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keeps the assembled tokens for as long as the OAuth token they were resolved for is the cached one,
+     * and the service authorization has not expired, so that callers do not look up the same user details
+     * and generate a service token on every call.
+     */
+    private ResolvedTokens resolve(String idamOauth2Token, String userId, String email, List<String> roles) {
+        String serviceAuthorization = generateServiceAuthorization();
+        IdamTokens idamTokens = IdamTokens.builder()
                 .idamOauth2Token(idamOauth2Token)
-                .serviceAuthorization(generateServiceAuthorization())
-                .userId(userDetails.getId())
-                .email(userDetails.getEmail())
-                .roles(userDetails.getRoles())
+                .serviceAuthorization(serviceAuthorization)
+                .userId(userId)
+                .email(email)
+                .roles(roles)
                 .build();
+        Instant now = clock.instant();
+        Instant serviceAuthorizationExpiresAt = expiryOf(serviceAuthorization, now)
+                .minusMillis(serviceAuthorizationExpiryMarginMillis);
+        ResolvedTokens resolved = new ResolvedTokens(idamTokens, serviceAuthorizationExpiresAt);
+        resolvedTokens = resolved;
+        return resolved;
+    }
+
+    /**
+     * Lets one caller fetch a new token while any others that missed at the same time wait for it,
+     * rather than each of them requesting their own from IDAM.
+     */
+    private CachedToken getUnexpiredToken() {
+        tokenLock.lock();
+        try {
+            CachedToken current = cachedToken;
+            if (current != null && !current.isExpired(clock.instant())) {
+                return current;
+            }
+            return fetchToken();
+        } finally {
+            tokenLock.unlock();
+        }
+    }
+
+    private void refreshInBackground(CachedToken stale) {
+        if (refreshing.compareAndSet(false, true)) {
+            try {
+                refreshExecutor.execute(() -> {
+                    try {
+                        refresh(stale);
+                    } finally {
+                        refreshing.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                refreshing.set(false);
+                log.warn("Could not schedule idam token refresh", e);
+            }
+        }
+    }
+
+    private void refresh(CachedToken stale) {
+        try {
+            tokenLock.lock();
+            try {
+                if (cachedToken == stale) {
+                    fetchToken();
+                }
+            } finally {
+                tokenLock.unlock();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Refreshing idam token ahead of expiry failed, keeping the current token", e);
+        }
+    }
+
+    private CachedToken fetchToken() {
+        String token = getOpenAccessToken();
+        CachedToken fetched = new CachedToken(token, expiryOf(token, clock.instant().plusMillis(ONE_HOUR)));
+        cachedToken = fetched;
+        return fetched;
+    }
+
+    private static Instant expiryOf(String token, Instant fallback) {
+        if (StringUtils.isEmpty(token)) {
+            return fallback;
+        }
+        try {
+            Date expirationTime = JWTParser.parse(StringUtils.removeStart(token, BEARER_PREFIX))
+                    .getJWTClaimsSet()
+                    .getExpirationTime();
+            return expirationTime != null ? expirationTime.toInstant() : fallback;
+        } catch (ParseException e) {
+            return fallback;
+        }
+    }
+
+    private record CachedToken(String value, Instant expiresAt) {
+
+        boolean isExpired(Instant now) {
+            return StringUtils.isEmpty(value) || !now.isBefore(expiresAt);
+        }
+
+        boolean isDueForRefresh(Instant now, long refreshAheadMillis) {
+            return !now.isBefore(expiresAt.minusMillis(refreshAheadMillis));
+        }
+    }
+
+    private record ResolvedTokens(IdamTokens idamTokens, Instant serviceAuthorizationExpiresAt) {
+
+        boolean isFor(String idamOauth2Token) {
+            return Objects.equals(idamTokens.getIdamOauth2Token(), idamOauth2Token);
+        }
+
+        boolean isServiceAuthorizationExpired(Instant now) {
+            return !now.isBefore(serviceAuthorizationExpiresAt);
+        }
     }
 }
@@ -1,5 +1,6 @@
 package uk.gov.hmcts.reform.sscs.idam;
 
+import java.util.ArrayList;
 import java.util.List;
 import lombok.Builder;
 import lombok.Data;
@@ -12,4 +13,17 @@ public class IdamTokens {
     final String userId;
     final String email;
     final List<String> roles;
+
+    /**
+     * A copy that can be handed to another caller or thread without either seeing changes made to the other.
+     */
+    public IdamTokens copy() {
+        return IdamTokens.builder()
+                .idamOauth2Token(idamOauth2Token)
+                .serviceAuthorization(serviceAuthorization)
+                .userId(userId)
+                .email(email)
+                .roles(roles != null ? new ArrayList<>(roles) : null)
+                .build();
+    }
 }
@@ -0,0 +1,190 @@
+package uk.gov.hmcts.reform.sscs.service;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.sscs.client.CommonReferenceDataApi;
+import uk.gov.hmcts.reform.sscs.idam.IdamService;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+import uk.gov.hmcts.reform.sscs.model.CaseFlag;
+import uk.gov.hmcts.reform.sscs.model.Categories;
+import uk.gov.hmcts.reform.sscs.model.Category;
+import uk.gov.hmcts.reform.sscs.model.CategoryRequest;
+import uk.gov.hmcts.reform.sscs.model.Flag;
+import uk.gov.hmcts.reform.sscs.model.FlagDetail;
+
+/**
+ * Caches the lists of values and case flags from common ref data, which hardly ever change. Entries older
+ * than {@code common-ref.cache.refresh-minutes} are reloaded in the background on their next lookup while
+ * the cached values carry on being returned, including when reloading fails. Alongside each result it
+ * keeps an index of every category by key, and every flag by flag code, however deeply they are nested.
+ * The cached objects are shared between callers and must not be modified.
+ */
+@Service
+@Slf4j
+public class CommonRefDataService {
+
+    private final CommonReferenceDataApi commonReferenceDataApi;
+    private final IdamService idamService;
+    private final LoadingCache<CategoryKey, CategoryIndex> categories;
+    private final LoadingCache<CaseFlagRequest, CaseFlagIndex> caseFlags;
+
+    public CommonRefDataService(CommonReferenceDataApi commonReferenceDataApi, IdamService idamService) {
+        this(commonReferenceDataApi, idamService, 60, 1440);
+    }
+
+    @Autowired
+    public CommonRefDataService(CommonReferenceDataApi commonReferenceDataApi, IdamService idamService,
+                                @Value("${common-ref.cache.refresh-minutes:60}") long refreshMinutes,
+                                @Value("${common-ref.cache.expire-minutes:1440}") long expireMinutes) {
+        this(commonReferenceDataApi, idamService, Duration.ofMinutes(refreshMinutes), Duration.ofMinutes(expireMinutes),
+                Ticker.systemTicker(), task -> Thread.ofVirtual().name("common-ref-refresh").start(task));
+    }
+
+    CommonRefDataService(CommonReferenceDataApi commonReferenceDataApi, IdamService idamService,
+                         Duration refreshAfter, Duration expireAfter, Ticker ticker, Executor refreshExecutor) {
+        this.commonReferenceDataApi = commonReferenceDataApi;
+        this.idamService = idamService;
+        this.categories = cache(refreshAfter, expireAfter, ticker,
+                CacheLoader.asyncReloading(CacheLoader.from(this::requestCategories), refreshExecutor));
+        this.caseFlags = cache(refreshAfter, expireAfter, ticker,
+                CacheLoader.asyncReloading(CacheLoader.from(this::requestCaseFlags), refreshExecutor));
+    }
+
+    public List<Category> getCategories(@NonNull CategoryRequest categoryRequest) {
+        return get(categories, CategoryKey.of(categoryRequest)).categories();
+    }
+
+    public Optional<Category> getCategory(@NonNull CategoryRequest categoryRequest, @NonNull String key) {
+        return Optional.ofNullable(get(categories, CategoryKey.of(categoryRequest)).categoriesByKey().get(key));
+    }
+
+    public CaseFlag getCaseFlags(@NonNull String serviceId, String flagType, String welshRequired) {
+        return get(caseFlags, new CaseFlagRequest(serviceId, flagType, welshRequired)).caseFlag();
+    }
+
+    public Optional<FlagDetail> getFlagDetail(@NonNull String serviceId, String flagType, String welshRequired,
+                                              @NonNull String flagCode) {
+        return Optional.ofNullable(get(caseFlags, new CaseFlagRequest(serviceId, flagType, welshRequired))
+                .flagsByCode().get(flagCode));
+    }
+
+    public void invalidateAll() {
+        categories.invalidateAll();
+        caseFlags.invalidateAll();
+    }
+
+    private CategoryIndex requestCategories(CategoryKey categoryKey) {
+        CategoryRequest categoryRequest = categoryKey.toRequest();
+        log.info("Requesting common ref data list of values for category {} and service {}",
+                categoryRequest.getCategoryId(), categoryRequest.getServiceId());
+        IdamTokens idamTokens = idamService.getIdamTokens();
+        ResponseEntity<Categories> response = commonReferenceDataApi.retrieveListOfValuesByCategoryId(
+                idamTokens.getIdamOauth2Token(), idamTokens.getServiceAuthorization(),
+                Optional.ofNullable(categoryRequest.getCategoryId()), categoryRequest);
+
+        Categories body = response != null ? response.getBody() : null;
+        List<Category> listOfCategory = body != null && body.getListOfCategory() != null
+                ? List.copyOf(body.getListOfCategory())
+                : List.of();
+        Map<String, Category> categoriesByKey = new HashMap<>();
+        indexCategories(listOfCategory, categoriesByKey);
+        return new CategoryIndex(listOfCategory, Map.copyOf(categoriesByKey));
+    }
+
+    private CaseFlagIndex requestCaseFlags(CaseFlagRequest caseFlagRequest) {
+        log.info("Requesting common ref data case flags for service {}", caseFlagRequest.serviceId());
+        IdamTokens idamTokens = idamService.getIdamTokens();
+        ResponseEntity<CaseFlag> response = commonReferenceDataApi.retrieveCaseFlagsByServiceId(
+                idamTokens.getIdamOauth2Token(), idamTokens.getServiceAuthorization(),
+                caseFlagRequest.serviceId(), caseFlagRequest.flagType(), caseFlagRequest.welshRequired());
+
+        CaseFlag caseFlag = response != null && response.getBody() != null ? response.getBody() : new CaseFlag(List.of());
+        Map<String, FlagDetail> flagsByCode = new HashMap<>();
+        if (caseFlag.getFlags() != null) {
+            caseFlag.getFlags().stream()
+                    .map(Flag::getFlagDetails)
+                    .forEach(flagDetails -> indexFlagDetails(flagDetails, flagsByCode));
+        }
+        return new CaseFlagIndex(caseFlag, Map.copyOf(flagsByCode));
+    }
+
+    private static void indexCategories(List<Category> categories, Map<String, Category> categoriesByKey) {
+        if (categories != null) {
+            categories.forEach(category -> {
+                if (category.getKey() != null) {
+                    categoriesByKey.putIfAbsent(category.getKey(), category);
+                }
+                indexCategories(category.getChildNodes(), categoriesByKey);
+            });
+        }
+    }
+
+    private static void indexFlagDetails(List<FlagDetail> flagDetails, Map<String, FlagDetail> flagsByCode) {
+        if (flagDetails != null) {
+            flagDetails.forEach(flagDetail -> {
+                if (flagDetail.getFlagCode() != null) {
+                    flagsByCode.putIfAbsent(flagDetail.getFlagCode(), flagDetail);
+                }
+                indexFlagDetails(flagDetail.getChildFlags(), flagsByCode);
+            });
+        }
+    }
+
+    private static <K, V> LoadingCache<K, V> cache(Duration refreshAfter, Duration expireAfter, Ticker ticker,
+                                                   CacheLoader<K, V> loader) {
+        return CacheBuilder.newBuilder()
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .ticker(ticker)
+                .build(loader);
+    }
+
+    private static <K, V> V get(LoadingCache<K, V> cache, K key) {
+        try {
+            return cache.getUnchecked(key);
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record CategoryKey(String categoryId, String serviceId, String parentCategory, String parentKey,
+                               String key, String isChildRequired) {
+
+        static CategoryKey of(CategoryRequest categoryRequest) {
+            return new CategoryKey(categoryRequest.getCategoryId(), categoryRequest.getServiceId(),
+                    categoryRequest.getParentCategory(), categoryRequest.getParentKey(), categoryRequest.getKey(),
+                    categoryRequest.getIsChildRequired());
+        }
+
+        CategoryRequest toRequest() {
+            return new CategoryRequest(categoryId, serviceId, parentCategory, parentKey, key, isChildRequired);
+        }
+    }
+
+    private record CategoryIndex(List<Category> categories, Map<String, Category> categoriesByKey) {
+    }
+
+    private record CaseFlagIndex(CaseFlag caseFlag, Map<String, FlagDetail> flagsByCode) {
+    }
+
+    private record CaseFlagRequest(String serviceId, String flagType, String welshRequired) {
+    }
+}
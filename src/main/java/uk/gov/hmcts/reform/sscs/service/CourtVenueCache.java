@@ -0,0 +1,106 @@
+package uk.gov.hmcts.reform.sscs.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.model.CourtVenue;
+
+/**
+ * Keeps SSCS court venues by ePIMS id. A venue older than {@code location_ref.venue-cache.ttl-minutes} is still
+ * returned while it is reloaded in the background, and kept if reloading fails, until it is older than
+ * {@code location_ref.venue-cache.max-stale-minutes}; only then does a lookup wait on location ref data again.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "location_ref.enabled", havingValue = "true")
+public class CourtVenueCache {
+
+    private final Cache<String, CachedVenue> venues;
+    private final Duration ttl;
+    private final Set<String> reloading = ConcurrentHashMap.newKeySet();
+
+    private Clock clock = Clock.systemUTC();
+
+    private Executor refreshExecutor = task -> Thread.ofVirtual().name("court-venue-refresh").start(task);
+
+    public CourtVenueCache() {
+        this(60, 1440);
+    }
+
+    @Autowired
+    public CourtVenueCache(@Value("${location_ref.venue-cache.ttl-minutes:60}") long ttlMinutes,
+                           @Value("${location_ref.venue-cache.max-stale-minutes:1440}") long maxStaleMinutes) {
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.venues = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(Math.max(ttlMinutes, maxStaleMinutes)))
+                .build();
+    }
+
+    public CourtVenue get(String epimsId, Function<String, CourtVenue> loader) {
+        CachedVenue cached = venues.getIfPresent(epimsId);
+        if (cached == null) {
+            CourtVenue venue = loader.apply(epimsId);
+            put(epimsId, venue);
+            return venue;
+        }
+        if (cached.isStale(clock.instant(), ttl)) {
+            reloadInBackground(epimsId, loader);
+        }
+        return cached.venue();
+    }
+
+    public void put(String epimsId, CourtVenue venue) {
+        venues.put(epimsId, new CachedVenue(venue, clock.instant()));
+    }
+
+    public void putAll(Map<String, CourtVenue> venuesByEpimsId) {
+        venuesByEpimsId.forEach(this::put);
+    }
+
+    public Set<String> epimsIds() {
+        return Set.copyOf(venues.asMap().keySet());
+    }
+
+    public void invalidateAll() {
+        venues.invalidateAll();
+    }
+
+    private void reloadInBackground(String epimsId, Function<String, CourtVenue> loader) {
+        if (!reloading.add(epimsId)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    put(epimsId, loader.apply(epimsId));
+                } catch (RuntimeException e) {
+                    log.warn("Reloading court venue for epims Id {} failed, keeping the cached venue", epimsId, e);
+                } finally {
+                    reloading.remove(epimsId);
+                }
+            });
+        } catch (RuntimeException e) {
+            reloading.remove(epimsId);
+            log.warn("Could not schedule reloading court venue for epims Id {}", epimsId, e);
+        }
+    }
+
+    private record CachedVenue(CourtVenue venue, Instant loadedAt) {
+
+        boolean isStale(Instant now, Duration ttl) {
+            return !now.isBefore(loadedAt.plus(ttl));
+        }
+    }
+}
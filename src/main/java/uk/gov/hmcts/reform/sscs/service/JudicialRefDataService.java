@@ -2,8 +2,16 @@ package uk.gov.hmcts.reform.sscs.service;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,35 +29,111 @@ public class JudicialRefDataService {
 
     private final JudicialRefDataApi judicialRefDataApi;
     private final IdamService idamService;
+    private final JudicialUserCache judicialUserCache;
     @Value("${feature.elinksV2.enabled}")
     private boolean elinksV2Feature;
 
+    @Value("${judicial-ref.batch-size:50}")
+    private int batchSize = 50;
+    @Value("${judicial-ref.parallel-batches:false}")
+    private boolean parallelBatches;
+
+    /**
+     * Resolves the display names of the panel members with personal codes, in the order they were given.
+     * The personal codes not already cached are looked up together, {@code judicial-ref.batch-size} to a
+     * request, and the requests are made concurrently when {@code judicial-ref.parallel-batches} is set.
+     * Fails when judicial ref data does not know one of the members, rather than leave their name out.
+     */
     public List<String> getAllJudicialUsersFullNames(@NonNull List<JudicialUserBase> judicialUsers) {
-        IdamTokens idamTokens = idamService.getIdamTokens();
+        List<String> personalCodes = judicialUsers.stream()
+                .map(JudicialUserBase::getPersonalCode)
+                .filter(personalCode -> isNotBlank(personalCode))
+                .toList();
+        if (personalCodes.isEmpty()) {
+            return List.of();
+        }
 
-        return judicialUsers.stream()
-                .filter(panelMember -> isNotBlank(panelMember.getPersonalCode()))
-                .map(panelMember ->
-                        getJudicialUserDisplayName(panelMember.getPersonalCode(), idamTokens))
-                .filter(Objects::nonNull)
+        Map<String, JudicialUser> usersByPersonalCode = getJudicialUsersByPersonalCode(personalCodes);
+
+        return personalCodes.stream()
+                .map(personalCode -> {
+                    JudicialUser judicialUser = usersByPersonalCode.get(personalCode);
+                    if (judicialUser == null) {
+                        throw new IllegalStateException("No Judicial User found with personal code " + personalCode);
+                    }
+                    return displayName(judicialUser);
+                })
                 .toList();
     }
 
-    public String getJudicialUserDisplayName(@NonNull String personalCode) {
-        return getJudicialUserDisplayName(personalCode, idamService.getIdamTokens());
+    /**
+     * Loads the judicial users with the given personal codes into the cache ahead of them being needed.
+     */
+    public void warmUp(@NonNull Collection<String> personalCodes) {
+        List<String> codes = personalCodes.stream()
+                .filter(personalCode -> isNotBlank(personalCode))
+                .distinct()
+                .toList();
+        if (!codes.isEmpty()) {
+            int found = getJudicialUsersByPersonalCode(codes).size();
+            log.info("Warmed up Judicial User cache with {} of {} personal codes", found, codes.size());
+        }
     }
 
-    private String getJudicialUserDisplayName(@NonNull String personalCode, IdamTokens idamTokens) {
-        log.info("Requesting Judicial User with personal code {}", personalCode);
+    private Map<String, JudicialUser> getJudicialUsersByPersonalCode(List<String> personalCodes) {
+        return judicialUserCache.getAllByPersonalCode(personalCodes,
+                missing -> requestJudicialUsersByPersonalCode(missing, idamService.getIdamTokens()));
+    }
+
+    private List<JudicialUser> requestJudicialUsersByPersonalCode(List<String> personalCodes, IdamTokens idamTokens) {
+        List<List<String>> batches = Lists.partition(personalCodes, Math.max(1, batchSize));
+        log.info("Requesting {} Judicial Users in {} batches", personalCodes.size(), batches.size());
+
+        List<JudicialUser> judicialUsers = new ArrayList<>();
+        if (parallelBatches && batches.size() > 1) {
+            List<Future<List<JudicialUser>>> futures = new ArrayList<>();
+            try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("judicial-ref-batch-", 0).factory())) {
+                batches.forEach(batch -> futures.add(executor.submit(() -> getJudicialUsersBatch(batch, idamTokens))));
+                futures.forEach(future -> judicialUsers.addAll(awaitBatch(future)));
+            }
+        } else {
+            batches.forEach(batch -> judicialUsers.addAll(getJudicialUsersBatch(batch, idamTokens)));
+        }
+
+        return judicialUsers;
+    }
 
+    private List<JudicialUser> getJudicialUsersBatch(List<String> personalCodes, IdamTokens idamTokens) {
         JudicialRefDataUsersRequest judicialRefDataUsersRequest = JudicialRefDataUsersRequest.builder()
-            .personalCodes(List.of(personalCode)).build();
+                .personalCodes(personalCodes).build();
 
         List<JudicialUser> judicialUsers = getJudicialUsersUsingSetElinksAPIVerion(idamTokens.getIdamOauth2Token(),
-            idamTokens.getServiceAuthorization(), judicialRefDataUsersRequest);
+                idamTokens.getServiceAuthorization(), judicialRefDataUsersRequest);
+        return judicialUsers != null ? judicialUsers : List.of();
+    }
 
-        JudicialUser judicialUser = judicialUsers.get(0);
+    private static List<JudicialUser> awaitBatch(Future<List<JudicialUser>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted requesting Judicial Users", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed requesting Judicial Users", e.getCause());
+        }
+    }
+
+    public String getJudicialUserDisplayName(@NonNull String personalCode) {
+        return findJudicialUserByPersonalCode(personalCode)
+                .map(JudicialRefDataService::displayName)
+                .orElseThrow(() -> new IllegalStateException("No Judicial User found with personal code " + personalCode));
+    }
 
+    private static String displayName(JudicialUser judicialUser) {
         return String.format("%s %s %s", judicialUser.getTitle(), splitInitials(judicialUser), judicialUser.getSurname());
     }
 
@@ -67,21 +151,9 @@ public class JudicialRefDataService {
     }
 
     public JudicialUserBase getJudicialUserFromPersonalCode(@NonNull String personalCode) {
-        IdamTokens idamTokens = idamService.getIdamTokens();
-
-        JudicialRefDataUsersRequest judicialRefDataUsersRequest = JudicialRefDataUsersRequest.builder()
-                .personalCodes(List.of(personalCode)).build();
-
-        List<JudicialUser> judicialUsers = getJudicialUsersUsingSetElinksAPIVerion(idamTokens.getIdamOauth2Token(),
-                idamTokens.getServiceAuthorization(), judicialRefDataUsersRequest);
-
-        if (!judicialUsers.isEmpty()) {
-            JudicialUser judicialUser = judicialUsers.get(0);
-
-            return new JudicialUserBase(judicialUser.getSidamId(), judicialUser.getPersonalCode());
-        }
-
-        return null;
+        return findJudicialUserByPersonalCode(personalCode)
+                .map(judicialUser -> new JudicialUserBase(judicialUser.getSidamId(), judicialUser.getPersonalCode()))
+                .orElse(null);
     }
 
     public String getPersonalCode(@NonNull String idamId) {
@@ -89,24 +161,28 @@ public class JudicialRefDataService {
     }
 
     public JudicialUserBase getJudicialUserFromIdamId(@NonNull String idamId) {
-        IdamTokens idamTokens = idamService.getIdamTokens();
+        return judicialUserCache.getByIdamId(idamId, id -> requestJudicialUser(JudicialRefDataUsersRequest.builder()
+                        .sidamIds(List.of(id)).build()))
+                .map(judicialUser -> new JudicialUserBase(judicialUser.getSidamId(), judicialUser.getPersonalCode()))
+                .orElse(null);
+    }
 
-        JudicialRefDataUsersRequest judicialRefDataUsersRequest = JudicialRefDataUsersRequest.builder()
-                .sidamIds(List.of(idamId)).build();
+    private Optional<JudicialUser> findJudicialUserByPersonalCode(String personalCode) {
+        return judicialUserCache.getByPersonalCode(personalCode, code -> {
+            log.info("Requesting Judicial User with personal code {}", code);
+            return requestJudicialUser(JudicialRefDataUsersRequest.builder().personalCodes(List.of(code)).build());
+        });
+    }
+
+    private Optional<JudicialUser> requestJudicialUser(JudicialRefDataUsersRequest judicialRefDataUsersRequest) {
+        IdamTokens idamTokens = idamService.getIdamTokens();
 
         List<JudicialUser> judicialUsers = getJudicialUsersUsingSetElinksAPIVerion(idamTokens.getIdamOauth2Token(),
                 idamTokens.getServiceAuthorization(), judicialRefDataUsersRequest);
 
-        if (!judicialUsers.isEmpty()) {
-            JudicialUser judicialUser = judicialUsers.get(0);
-
-            return new JudicialUserBase(judicialUser.getSidamId(), judicialUser.getPersonalCode());
-        }
-
-        return null;
+        return judicialUsers == null ? Optional.empty() : judicialUsers.stream().findFirst();
     }
 
-
     private List<JudicialUser> getJudicialUsersUsingSetElinksAPIVerion(String authorisation, String serviceAuthorization,
                                                             JudicialRefDataUsersRequest judicialRefDataUsersRequest) {
         if (elinksV2Feature) {
@@ -0,0 +1,136 @@
+package uk.gov.hmcts.reform.sscs.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.model.client.JudicialUser;
+
+/**
+ * Keeps judicial users looked up from judicial ref data, findable by both personal code and IDAM id whichever
+ * one they were looked up by. Lookups that found no user are remembered for a shorter time, so that an unknown
+ * code does not cost a request every time either. A maximum size of 0 turns the cache off.
+ */
+@Slf4j
+@Component
+public class JudicialUserCache {
+
+    private static final String PERSONAL_CODE = "personalCode:";
+    private static final String IDAM_ID = "idamId:";
+
+    private final Cache<String, JudicialUser> users;
+    private final Cache<String, Boolean> unknownUsers;
+
+    public JudicialUserCache() {
+        this(720, 10, 5000);
+    }
+
+    @Autowired
+    public JudicialUserCache(@Value("${judicial-ref.cache.ttl-minutes:720}") long ttlMinutes,
+                             @Value("${judicial-ref.cache.negative-ttl-minutes:10}") long negativeTtlMinutes,
+                             @Value("${judicial-ref.cache.max-size:5000}") long maxSize) {
+        this.users = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxSize * 2)
+                .build();
+        this.unknownUsers = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(negativeTtlMinutes))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Optional<JudicialUser> getByPersonalCode(String personalCode,
+                                                    Function<String, Optional<JudicialUser>> loader) {
+        return get(PERSONAL_CODE + personalCode, personalCode, loader);
+    }
+
+    public Optional<JudicialUser> getByIdamId(String idamId, Function<String, Optional<JudicialUser>> loader) {
+        return get(IDAM_ID + idamId, idamId, loader);
+    }
+
+    /**
+     * The users with the given personal codes, loading those not already cached or known to be unknown with
+     * one call to the loader. Personal codes with no user are left out of the result.
+     */
+    public Map<String, JudicialUser> getAllByPersonalCode(Collection<String> personalCodes,
+                                                          Function<List<String>, List<JudicialUser>> loader) {
+        Map<String, JudicialUser> found = new LinkedHashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String personalCode : personalCodes) {
+            JudicialUser cached = users.getIfPresent(PERSONAL_CODE + personalCode);
+            if (cached != null) {
+                found.put(personalCode, cached);
+            } else if (unknownUsers.getIfPresent(PERSONAL_CODE + personalCode) == null) {
+                missing.add(personalCode);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        log.info("Loading {} of {} Judicial Users not already cached", missing.size(), personalCodes.size());
+        Map<String, JudicialUser> loaded = new LinkedHashMap<>();
+        loader.apply(List.copyOf(missing)).stream()
+                .filter(judicialUser -> judicialUser.getPersonalCode() != null)
+                .forEach(judicialUser -> {
+                    put(judicialUser);
+                    loaded.putIfAbsent(judicialUser.getPersonalCode(), judicialUser);
+                });
+        missing.stream()
+                .filter(personalCode -> !loaded.containsKey(personalCode))
+                .forEach(personalCode -> unknownUsers.put(PERSONAL_CODE + personalCode, Boolean.TRUE));
+
+        Map<String, JudicialUser> result = new LinkedHashMap<>();
+        personalCodes.forEach(personalCode -> {
+            JudicialUser judicialUser = found.getOrDefault(personalCode, loaded.get(personalCode));
+            if (judicialUser != null) {
+                result.put(personalCode, judicialUser);
+            }
+        });
+        return result;
+    }
+
+    public void invalidateAll() {
+        users.invalidateAll();
+        unknownUsers.invalidateAll();
+    }
+
+    private Optional<JudicialUser> get(String key, String id, Function<String, Optional<JudicialUser>> loader) {
+        JudicialUser cached = users.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (unknownUsers.getIfPresent(key) != null) {
+            return Optional.empty();
+        }
+
+        Optional<JudicialUser> loaded = loader.apply(id);
+        loaded.ifPresentOrElse(judicialUser -> {
+            put(judicialUser);
+            users.put(key, judicialUser);
+        }, () -> unknownUsers.put(key, Boolean.TRUE));
+        return loaded;
+    }
+
+    private void put(JudicialUser judicialUser) {
+        if (judicialUser.getPersonalCode() != null) {
+            users.put(PERSONAL_CODE + judicialUser.getPersonalCode(), judicialUser);
+            unknownUsers.invalidate(PERSONAL_CODE + judicialUser.getPersonalCode());
+        }
+        if (judicialUser.getSidamId() != null) {
+            users.put(IDAM_ID + judicialUser.getSidamId(), judicialUser);
+            unknownUsers.invalidate(IDAM_ID + judicialUser.getSidamId());
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package uk.gov.hmcts.reform.sscs.service;
 
+import com.google.common.collect.Iterables;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.sscs.client.RefDataApi;
 import uk.gov.hmcts.reform.sscs.idam.IdamService;
@@ -22,18 +32,72 @@ public class RefDataService {
     public static final String OPEN = "Open";
     private final RefDataApi refDataApi;
     private final IdamService idamService;
+    private final VenueDataLoader venueDataLoader;
+    private final CourtVenueCache courtVenueCache;
+
+    @Value("${location_ref.venue-cache.prefetch:false}")
+    private boolean prefetch;
+
+    @Value("${location_ref.venue-cache.prefetch-batch-size:50}")
+    private int prefetchBatchSize = 50;
 
     public CourtVenue getCourtVenueRefDataByEpimsId(@NonNull String epimsId) {
+        return courtVenueCache.get(epimsId, this::requestCourtVenue);
+    }
+
+    /**
+     * Loads every active SSCS venue known to {@link VenueDataLoader} into the cache, requesting
+     * {@code location_ref.venue-cache.prefetch-batch-size} ePIMS ids at a time.
+     */
+    public void prefetchCourtVenues() {
+        Set<String> epimsIds = venueDataLoader.getActiveVenueDetailsMapByEpimsId().keySet();
+        Map<String, CourtVenue> venues = requestCourtVenues(epimsIds);
+        courtVenueCache.putAll(venues);
+        log.info("Prefetched {} of {} active SSCS court venues", venues.size(), epimsIds.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetchCourtVenuesOnStartup() {
+        if (prefetch) {
+            Thread.ofVirtual().name("court-venue-prefetch").start(() -> {
+                try {
+                    prefetchCourtVenues();
+                } catch (RuntimeException e) {
+                    log.warn("Prefetching court venues failed, venues will be loaded as they are requested", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reloads the cached venues, and the active SSCS venues when prefetching, so that venues are refreshed
+     * even when they are not being looked up. Venues that fail to reload stay cached as they were.
+     */
+    @Scheduled(initialDelayString = "${location_ref.venue-cache.refresh-interval-ms:3600000}",
+            fixedDelayString = "${location_ref.venue-cache.refresh-interval-ms:3600000}")
+    public void refreshCourtVenues() {
+        Set<String> epimsIds = new LinkedHashSet<>(courtVenueCache.epimsIds());
+        if (prefetch) {
+            epimsIds.addAll(venueDataLoader.getActiveVenueDetailsMapByEpimsId().keySet());
+        }
+        if (epimsIds.isEmpty()) {
+            return;
+        }
+        try {
+            courtVenueCache.putAll(requestCourtVenues(epimsIds));
+        } catch (RuntimeException e) {
+            log.warn("Refreshing court venues failed, keeping the cached venues", e);
+        }
+    }
+
+    private CourtVenue requestCourtVenue(String epimsId) {
         log.info("Requesting venue ref data for epims Id: {}", epimsId);
         IdamTokens idamTokens = idamService.getIdamTokens();
 
         List<CourtVenue> venues = refDataApi.courtVenueByEpimsId(idamTokens.getIdamOauth2Token(),
             idamTokens.getServiceAuthorization(), SSCS_SERVICE_CODE, epimsId);
 
-        List<CourtVenue> sscsCourtVenues =
-            venues.stream().filter(venue -> SSCS_COURT_TYPE_ID.equals(venue.getCourtTypeId())
-                            && OPEN.equalsIgnoreCase(venue.getCourtStatus()))
-                .collect(Collectors.toList());
+        List<CourtVenue> sscsCourtVenues = sscsCourtVenues(venues);
 
         if (sscsCourtVenues.size() != 1) {
             throw new IllegalStateException("Exactly one SSCS court venue is required for epims ID: " + epimsId);
@@ -41,4 +105,32 @@ public class RefDataService {
 
         return sscsCourtVenues.get(0);
     }
+
+    private Map<String, CourtVenue> requestCourtVenues(Collection<String> epimsIds) {
+        IdamTokens idamTokens = idamService.getIdamTokens();
+        Map<String, CourtVenue> venuesByEpimsId = new HashMap<>();
+        for (List<String> batch : Iterables.partition(epimsIds, Math.max(1, prefetchBatchSize))) {
+            log.info("Requesting venue ref data for {} epims Ids", batch.size());
+            List<CourtVenue> venues = refDataApi.courtVenueByEpimsId(idamTokens.getIdamOauth2Token(),
+                idamTokens.getServiceAuthorization(), SSCS_SERVICE_CODE, String.join(",", batch));
+
+            sscsCourtVenues(venues).stream()
+                .filter(venue -> venue.getEpimsId() != null)
+                .collect(Collectors.groupingBy(CourtVenue::getEpimsId))
+                .forEach((epimsId, sscsCourtVenues) -> {
+                    if (sscsCourtVenues.size() == 1) {
+                        venuesByEpimsId.put(epimsId, sscsCourtVenues.get(0));
+                    } else {
+                        log.warn("Exactly one SSCS court venue is required for epims ID: {}", epimsId);
+                    }
+                });
+        }
+        return venuesByEpimsId;
+    }
+
+    private static List<CourtVenue> sscsCourtVenues(List<CourtVenue> venues) {
+        return venues.stream().filter(venue -> SSCS_COURT_TYPE_ID.equals(venue.getCourtTypeId())
+                        && OPEN.equalsIgnoreCase(venue.getCourtStatus()))
+            .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,112 @@
+package uk.gov.hmcts.reform.sscs.ccd.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.ccd.client.CoreCaseDataApi;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+import uk.gov.hmcts.reform.ccd.client.model.Event;
+import uk.gov.hmcts.reform.ccd.client.model.SearchResult;
+import uk.gov.hmcts.reform.sscs.ccd.config.CcdRequestDetails;
+import uk.gov.hmcts.reform.sscs.client.CoreCaseDataStreamingApi;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+
+@ExtendWith(MockitoExtension.class)
+class CcdClientMetricsTest {
+
+    private static final Long CASE_ID = 1234L;
+
+    @Mock
+    private CoreCaseDataApi coreCaseDataApi;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CcdRequestDetails ccdRequestDetails = CcdRequestDetails.builder()
+            .jurisdictionId("SSCS").caseTypeId("Benefit").build();
+    private final IdamTokens idamTokens = IdamTokens.builder()
+            .idamOauth2Token("oauth").serviceAuthorization("s2s").userId("user").build();
+
+    private CcdClient ccdClient(boolean enabled) {
+        return new CcdClient(ccdRequestDetails, coreCaseDataApi, (CoreCaseDataStreamingApi) null, null, false,
+                new CcdClientMetrics(meterRegistry, enabled, 0.95));
+    }
+
+    @Test
+    void timesSubmitsPerEventType() {
+        CaseDataContent caseDataContent = CaseDataContent.builder()
+                .event(Event.builder().id("updateCaseOnly").build()).build();
+        when(coreCaseDataApi.submitEventForCaseWorker(any(), any(), any(), any(), any(), eq("1234"), anyBoolean(), any()))
+                .thenReturn(CaseDetails.builder().id(CASE_ID).build());
+
+        ccdClient(true).submitEventForCaseworker(idamTokens, CASE_ID, caseDataContent);
+
+        assertThat(meterRegistry.get(CcdClientMetrics.REQUESTS_METRIC)
+                .tag("operation", "submitEventForCaseworker")
+                .tag("eventType", "updateCaseOnly")
+                .tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsSearchResultCounts() {
+        when(coreCaseDataApi.searchCases("oauth", "s2s", "Benefit", "{}"))
+                .thenReturn(SearchResult.builder().cases(List.of(
+                        CaseDetails.builder().id(1L).build(), CaseDetails.builder().id(2L).build())).build());
+
+        ccdClient(true).searchCases(idamTokens, "{}");
+
+        assertThat(meterRegistry.get(CcdClientMetrics.SEARCH_RESULTS_METRIC).tag("operation", "searchCases")
+                .summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get(CcdClientMetrics.REQUESTS_METRIC).tag("eventType", "none").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void countsErrorsByStatus() {
+        when(coreCaseDataApi.readForCaseWorker(any(), any(), any(), any(), any(), eq("1234")))
+                .thenThrow(feignException(404));
+
+        assertThatThrownBy(() -> ccdClient(true).readForCaseworker(idamTokens, CASE_ID))
+                .isInstanceOf(FeignException.NotFound.class);
+
+        assertThat(meterRegistry.get(CcdClientMetrics.ERRORS_METRIC).tag("operation", "readForCaseworker")
+                .tag("status", "404").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CcdClientMetrics.REQUESTS_METRIC).tag("outcome", "error").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void recordsNothingWhenDisabled() {
+        when(coreCaseDataApi.readForCaseWorker(any(), any(), any(), any(), any(), eq("1234")))
+                .thenReturn(CaseDetails.builder().id(CASE_ID).build());
+
+        ccdClient(false).readForCaseworker(idamTokens, CASE_ID);
+
+        assertThat(meterRegistry.getMeters()).isEmpty();
+    }
+
+    private static FeignException feignException(int status) {
+        Request request = Request.create(Request.HttpMethod.GET, "/cases", Map.of(), null, StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("readForCaseWorker", Response.builder()
+                .status(status)
+                .reason("status " + status)
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+}
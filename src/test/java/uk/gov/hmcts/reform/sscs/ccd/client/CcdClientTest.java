@@ -0,0 +1,52 @@
+package uk.gov.hmcts.reform.sscs.ccd.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import uk.gov.hmcts.reform.ccd.client.CoreCaseDataApi;
+import uk.gov.hmcts.reform.sscs.ccd.config.CcdRequestDetails;
+import uk.gov.hmcts.reform.sscs.ccd.service.SscsCaseDetailsStreamingDecoder;
+import uk.gov.hmcts.reform.sscs.client.CoreCaseDataStreamingApi;
+
+@ExtendWith(MockitoExtension.class)
+class CcdClientTest {
+
+    @Mock
+    private CoreCaseDataApi coreCaseDataApi;
+    @Mock
+    private ObjectProvider<CoreCaseDataStreamingApi> coreCaseDataStreamingApi;
+    @Mock
+    private CoreCaseDataStreamingApi streamingApi;
+    @Mock
+    private SscsCaseDetailsStreamingDecoder streamingDecoder;
+
+    private final CcdRequestDetails ccdRequestDetails = CcdRequestDetails.builder()
+            .jurisdictionId("SSCS").caseTypeId("Benefit").build();
+
+    @Test
+    void doesNotLookUpTheStreamingApiWhenStreamingDecodeIsOff() {
+        CcdClient ccdClient = new CcdClient(ccdRequestDetails, coreCaseDataApi, coreCaseDataStreamingApi, streamingDecoder,
+                false, CcdClientMetrics.disabled());
+
+        assertThat(ccdClient.isStreamingDecodeEnabled()).isFalse();
+        verify(coreCaseDataStreamingApi, never()).getObject();
+    }
+
+    @Test
+    void looksUpTheStreamingApiWhenStreamingDecodeIsOn() {
+        when(coreCaseDataStreamingApi.getObject()).thenReturn(streamingApi);
+
+        CcdClient ccdClient = new CcdClient(ccdRequestDetails, coreCaseDataApi, coreCaseDataStreamingApi, streamingDecoder,
+                true, CcdClientMetrics.disabled());
+
+        assertThat(ccdClient.isStreamingDecodeEnabled()).isTrue();
+        verify(coreCaseDataStreamingApi).getObject();
+    }
+}
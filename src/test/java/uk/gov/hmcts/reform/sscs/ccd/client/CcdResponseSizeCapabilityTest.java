@@ -0,0 +1,59 @@
+package uk.gov.hmcts.reform.sscs.ccd.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import feign.Client;
+import feign.Feign;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import uk.gov.hmcts.reform.ccd.client.CoreCaseDataApi;
+import uk.gov.hmcts.reform.sscs.client.CoreCaseDataStreamingApi;
+
+class CcdResponseSizeCapabilityTest {
+
+    private static final String BODY = "{\"id\":1234,\"case_data\":{}}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Client ccd = (request, options) -> Response.builder()
+            .status(200)
+            .request(request)
+            .headers(Map.of())
+            .body(BODY, StandardCharsets.UTF_8)
+            .build();
+
+    private <T> T client(Class<T> type, boolean enabled) {
+        return Feign.builder()
+                .contract(new SpringMvcContract())
+                .client(ccd)
+                .decoder((response, bodyType) -> null)
+                .addCapability(new CcdResponseSizeCapability(new CcdClientMetrics(meterRegistry, enabled)))
+                .target(type, "http://ccd");
+    }
+
+    @Test
+    void recordsTheSizeOfCoreCaseDataApiResponses() {
+        client(CoreCaseDataApi.class, true).readForCaseWorker("oauth", "s2s", "user", "SSCS", "Benefit", "1234");
+
+        assertThat(meterRegistry.get(CcdClientMetrics.RESPONSE_BYTES_METRIC).tag("operation", "readForCaseWorker")
+                .summary().totalAmount()).isEqualTo(BODY.length());
+    }
+
+    @Test
+    void recordsNothingWhenDisabled() {
+        client(CoreCaseDataApi.class, false).readForCaseWorker("oauth", "s2s", "user", "SSCS", "Benefit", "1234");
+
+        assertThat(meterRegistry.getMeters()).isEmpty();
+    }
+
+    @Test
+    void leavesOtherFeignClientsAlone() {
+        client(CoreCaseDataStreamingApi.class, true).readForCaseWorker("oauth", "s2s", "user", "SSCS", "Benefit", "1234");
+
+        assertThat(meterRegistry.getMeters()).isEmpty();
+    }
+}
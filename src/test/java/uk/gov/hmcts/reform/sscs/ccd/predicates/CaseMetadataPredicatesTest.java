@@ -0,0 +1,65 @@
+package uk.gov.hmcts.reform.sscs.ccd.predicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.hmcts.reform.sscs.ccd.domain.State.DRAFT;
+import static uk.gov.hmcts.reform.sscs.ccd.domain.State.DRAFT_ARCHIVED;
+import static uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates.inState;
+import static uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates.modifiedAfter;
+import static uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates.modifiedBefore;
+import static uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates.notDraftOrArchivedDraft;
+import static uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates.ofCaseType;
+import static uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates.onSscsCaseDetails;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+
+class CaseMetadataPredicatesTest {
+
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @Test
+    void notDraftOrArchivedDraft_keepsSubmittedAndNullCases() {
+        assertThat(notDraftOrArchivedDraft().test(CaseDetails.builder().state("withDwp").build())).isTrue();
+        assertThat(notDraftOrArchivedDraft().test(null)).isTrue();
+        assertThat(notDraftOrArchivedDraft().test(CaseDetails.builder().state(DRAFT.getId()).build())).isFalse();
+        assertThat(notDraftOrArchivedDraft().test(CaseDetails.builder().state(DRAFT_ARCHIVED.getId()).build())).isFalse();
+    }
+
+    @Test
+    void inState_matchesAnyOfTheStates() {
+        CaseDetails caseDetails = CaseDetails.builder().state("readyToList").build();
+
+        assertThat(inState("withDwp", "readyToList").test(caseDetails)).isTrue();
+        assertThat(inState("withDwp").test(caseDetails)).isFalse();
+        assertThat(inState("withDwp").test(null)).isFalse();
+    }
+
+    @Test
+    void ofCaseType_matchesCaseTypeId() {
+        CaseDetails caseDetails = CaseDetails.builder().caseTypeId("Benefit").build();
+
+        assertThat(ofCaseType("Benefit").test(caseDetails)).isTrue();
+        assertThat(ofCaseType("Other").test(caseDetails)).isFalse();
+    }
+
+    @Test
+    void modifiedAfterAndBefore_compareLastModified() {
+        CaseDetails caseDetails = CaseDetails.builder().lastModified(MODIFIED).build();
+
+        assertThat(modifiedAfter(MODIFIED.minusDays(1)).test(caseDetails)).isTrue();
+        assertThat(modifiedAfter(MODIFIED).test(caseDetails)).isFalse();
+        assertThat(modifiedBefore(MODIFIED.plusDays(1)).test(caseDetails)).isTrue();
+        assertThat(modifiedBefore(MODIFIED).test(CaseDetails.builder().build())).isFalse();
+    }
+
+    @Test
+    void onSscsCaseDetails_testsTheMetadataOfBoundCases() {
+        SscsCaseDetails sscsCaseDetails = SscsCaseDetails.builder().state(DRAFT.getId()).lastModified(MODIFIED).build();
+
+        assertThat(onSscsCaseDetails(notDraftOrArchivedDraft()).test(sscsCaseDetails)).isFalse();
+        assertThat(onSscsCaseDetails(modifiedAfter(MODIFIED.minusHours(1))).test(sscsCaseDetails)).isTrue();
+        assertThat(onSscsCaseDetails(notDraftOrArchivedDraft()).test(null)).isTrue();
+    }
+}
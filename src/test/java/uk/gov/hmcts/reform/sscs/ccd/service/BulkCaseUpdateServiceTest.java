@@ -0,0 +1,152 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.hmcts.reform.sscs.ccd.service.BulkUpdateReport.Outcome.CONFLICTED;
+import static uk.gov.hmcts.reform.sscs.ccd.service.BulkUpdateReport.Outcome.FAILED;
+import static uk.gov.hmcts.reform.sscs.ccd.service.BulkUpdateReport.Outcome.SKIPPED;
+import static uk.gov.hmcts.reform.sscs.ccd.service.BulkUpdateReport.Outcome.SUCCEEDED;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Request;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.ccd.service.BulkUpdateReport.CaseOutcome;
+import uk.gov.hmcts.reform.sscs.ccd.service.UpdateCcdCaseService.ConditionalUpdateResult;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+
+@ExtendWith(MockitoExtension.class)
+class BulkCaseUpdateServiceTest {
+
+    private static final String EVENT_TYPE = "caseUpdated";
+
+    @Mock
+    private UpdateCcdCaseService updateCcdCaseService;
+
+    @TempDir
+    Path tempDir;
+
+    private final IdamTokens idamTokens = IdamTokens.builder().build();
+    private final Function<SscsCaseDetails, ConditionalUpdateResult> mutator =
+        caseDetails -> new ConditionalUpdateResult("summary", "description", true);
+
+    private BulkCaseUpdateService bulkCaseUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        bulkCaseUpdateService = new BulkCaseUpdateService(updateCcdCaseService);
+        ReflectionTestUtils.setField(bulkCaseUpdateService, "permitsPerSecond", 1000.0);
+    }
+
+    @Test
+    void shouldReportTheOutcomeOfEachCaseInOrder() {
+        when(updateCcdCaseService.updateCaseV2Conditional(1L, EVENT_TYPE, idamTokens, mutator))
+            .thenReturn(Optional.of(SscsCaseDetails.builder().id(1L).build()));
+        when(updateCcdCaseService.updateCaseV2Conditional(2L, EVENT_TYPE, idamTokens, mutator))
+            .thenReturn(Optional.empty());
+        when(updateCcdCaseService.updateCaseV2Conditional(3L, EVENT_TYPE, idamTokens, mutator))
+            .thenThrow(conflict());
+        when(updateCcdCaseService.updateCaseV2Conditional(4L, EVENT_TYPE, idamTokens, mutator))
+            .thenThrow(new IllegalStateException("broken"));
+
+        BulkUpdateReport report = bulkCaseUpdateService.updateCasesConditional(
+            List.of(1L, 2L, 3L, 4L, 1L), EVENT_TYPE, idamTokens, mutator, null);
+
+        assertThat(report.cases()).extracting(CaseOutcome::caseId, CaseOutcome::outcome).containsExactly(
+            tuple(1L, SUCCEEDED),
+            tuple(2L, SKIPPED),
+            tuple(3L, CONFLICTED),
+            tuple(4L, FAILED));
+        assertThat(report.totals()).isEqualTo(Map.of(SUCCEEDED, 1L, SKIPPED, 1L, CONFLICTED, 1L, FAILED, 1L));
+        assertThat(report.cases().get(3).error()).isEqualTo("broken");
+        verify(updateCcdCaseService, times(1)).updateCaseV2Conditional(eq(1L), eq(EVENT_TYPE), eq(idamTokens), any());
+    }
+
+    @Test
+    void shouldResumeFromCheckpointWithoutUpdatingProcessedCases() throws IOException {
+        Path checkpoint = tempDir.resolve("checkpoint.txt");
+        when(updateCcdCaseService.updateCaseV2Conditional(1L, EVENT_TYPE, idamTokens, mutator))
+            .thenReturn(Optional.of(SscsCaseDetails.builder().id(1L).build()));
+        when(updateCcdCaseService.updateCaseV2Conditional(2L, EVENT_TYPE, idamTokens, mutator))
+            .thenThrow(new IllegalStateException("broken"))
+            .thenReturn(Optional.of(SscsCaseDetails.builder().id(2L).build()));
+
+        BulkUpdateReport first = bulkCaseUpdateService.updateCasesConditional(
+            List.of(1L, 2L), EVENT_TYPE, idamTokens, mutator, checkpoint);
+        BulkUpdateReport resumed = bulkCaseUpdateService.updateCasesConditional(
+            List.of(1L, 2L), EVENT_TYPE, idamTokens, mutator, checkpoint);
+
+        assertThat(first.count(FAILED)).isEqualTo(1);
+        assertThat(resumed.alreadyProcessed()).isEqualTo(1);
+        assertThat(resumed.cases()).containsExactly(new CaseOutcome(2L, SUCCEEDED, null));
+        assertThat(Files.readAllLines(checkpoint, StandardCharsets.UTF_8)).containsExactly("1", "2");
+        verify(updateCcdCaseService, times(1)).updateCaseV2Conditional(eq(1L), eq(EVENT_TYPE), eq(idamTokens), any());
+        verify(updateCcdCaseService, never()).updateCaseV2(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void shouldReportAnUpdatedCaseAsSucceededWhenItsCheckpointWriteFails() {
+        Path checkpointFile = tempDir.resolve("checkpoint.txt");
+        BulkUpdateCheckpoint checkpoint = mock(BulkUpdateCheckpoint.class);
+        doThrow(new UncheckedIOException("disk full", new IOException("disk full"))).when(checkpoint).markProcessed(1L);
+        when(updateCcdCaseService.updateCaseV2Conditional(1L, EVENT_TYPE, idamTokens, mutator))
+            .thenReturn(Optional.of(SscsCaseDetails.builder().id(1L).build()));
+
+        BulkUpdateReport report;
+        try (MockedStatic<BulkUpdateCheckpoint> checkpoints = mockStatic(BulkUpdateCheckpoint.class)) {
+            checkpoints.when(() -> BulkUpdateCheckpoint.open(checkpointFile)).thenReturn(checkpoint);
+            report = bulkCaseUpdateService.updateCasesConditional(List.of(1L), EVENT_TYPE, idamTokens, mutator, checkpointFile);
+        }
+
+        assertThat(report.count(SUCCEEDED)).isEqualTo(1);
+        assertThat(report.count(FAILED)).isZero();
+        assertThat(report.cases().get(0).error()).startsWith(BulkCaseUpdateService.CHECKPOINT_WRITE_FAILED);
+    }
+
+    @Test
+    void shouldWriteMachineReadableReport() throws IOException {
+        Path reportFile = tempDir.resolve("report.json");
+        BulkUpdateReport report = BulkUpdateReport.of(EVENT_TYPE, 2, List.of(new CaseOutcome(1L, SUCCEEDED, null)));
+
+        bulkCaseUpdateService.writeReport(report, reportFile);
+
+        JsonNode json = new ObjectMapper().readTree(reportFile.toFile());
+        assertThat(json.get("eventType").asText()).isEqualTo(EVENT_TYPE);
+        assertThat(json.get("alreadyProcessed").asInt()).isEqualTo(2);
+        assertThat(json.get("totals").get("SUCCEEDED").asLong()).isEqualTo(1);
+        assertThat(json.get("cases").get(0).get("outcome").asText()).isEqualTo("SUCCEEDED");
+    }
+
+    private static FeignException conflict() {
+        Request request = Request.create(Request.HttpMethod.POST, "/cases", Map.of(), null, StandardCharsets.UTF_8, null);
+        return new FeignException.Conflict("conflict", request, null, null);
+    }
+}
@@ -0,0 +1,111 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+
+@ExtendWith(MockitoExtension.class)
+class CaseChangeFeedTest {
+
+    private static final LocalDateTime MODIFIED_BEFORE = LocalDateTime.of(2024, 10, 1, 12, 0);
+
+    @Mock
+    private SearchCcdCaseService searchCcdCaseService;
+
+    @TempDir
+    Path tempDir;
+
+    private final IdamTokens idamTokens = IdamTokens.builder().build();
+    private final List<List<SscsCaseDetails>> delivered = new ArrayList<>();
+
+    private CaseChangeFeed caseChangeFeed;
+    private Path watermarkFile;
+
+    @BeforeEach
+    void setUp() {
+        caseChangeFeed = new CaseChangeFeed(searchCcdCaseService);
+        ReflectionTestUtils.setField(caseChangeFeed, "pageSize", 2);
+        ReflectionTestUtils.setField(caseChangeFeed, "clock",
+                Clock.fixed(Instant.parse("2024-10-01T12:00:30Z"), ZoneOffset.UTC));
+        watermarkFile = tempDir.resolve("watermark");
+    }
+
+    @Test
+    void deliversEveryChangedCaseInPagesAndMovesTheWatermarkOn() throws IOException {
+        SscsCaseDetails first = caseModifiedAt(1L, LocalDateTime.of(2024, 10, 1, 10, 0, 0, 500_123_000));
+        SscsCaseDetails second = caseModifiedAt(2L, LocalDateTime.of(2024, 10, 1, 10, 0, 1));
+        SscsCaseDetails third = caseModifiedAt(3L, LocalDateTime.of(2024, 10, 1, 11, 0));
+        when(searchCcdCaseService.findCasesChangedAfter(anyString(), isNull(), eq(MODIFIED_BEFORE), eq(2), eq(idamTokens)))
+                .thenReturn(List.of(first, second));
+        when(searchCcdCaseService.findCasesChangedAfter(anyString(), eq(CaseChangeWatermark.of(second)), eq(MODIFIED_BEFORE),
+                eq(2), eq(idamTokens)))
+                .thenReturn(List.of(third));
+
+        long count = caseChangeFeed.poll(watermarkFile, idamTokens, delivered::add);
+
+        assertThat(count).isEqualTo(3);
+        assertThat(delivered).containsExactly(List.of(first, second), List.of(third));
+        assertThat(Files.readString(watermarkFile).trim()).isEqualTo("2024-10-01T11:00 3");
+        assertThat(tempDir.resolve("watermark.tmp")).doesNotExist();
+    }
+
+    @Test
+    void resumesFromTheWatermarkAndKeepsItAtTheLastPageTheConsumerAccepted() {
+        CaseChangeWatermark watermark = new CaseChangeWatermark(LocalDateTime.of(2024, 10, 1, 9, 0), 7L);
+        watermark.write(watermarkFile);
+        SscsCaseDetails first = caseModifiedAt(8L, LocalDateTime.of(2024, 10, 1, 9, 0));
+        SscsCaseDetails second = caseModifiedAt(9L, LocalDateTime.of(2024, 10, 1, 9, 30));
+        SscsCaseDetails third = caseModifiedAt(10L, LocalDateTime.of(2024, 10, 1, 10, 0));
+        when(searchCcdCaseService.findCasesChangedAfter(anyString(), eq(watermark), eq(MODIFIED_BEFORE), eq(2), eq(idamTokens)))
+                .thenReturn(List.of(first, second));
+        when(searchCcdCaseService.findCasesChangedAfter(anyString(), eq(CaseChangeWatermark.of(second)), eq(MODIFIED_BEFORE),
+                eq(2), eq(idamTokens)))
+                .thenReturn(List.of(third));
+
+        assertThatThrownBy(() -> caseChangeFeed.poll(watermarkFile, idamTokens, page -> {
+            if (page.contains(third)) {
+                throw new IllegalStateException("consumer failed");
+            }
+            delivered.add(page);
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(delivered).containsExactly(List.of(first, second));
+        assertThat(CaseChangeWatermark.read(watermarkFile)).isEqualTo(CaseChangeWatermark.of(second));
+    }
+
+    @Test
+    void deliversNothingWhenNoCaseChanged() {
+        when(searchCcdCaseService.findCasesChangedAfter(anyString(), isNull(), eq(MODIFIED_BEFORE), eq(2), eq(idamTokens)))
+                .thenReturn(List.of());
+
+        assertThat(caseChangeFeed.poll(watermarkFile, idamTokens, delivered::add)).isZero();
+        assertThat(delivered).isEmpty();
+        assertThat(watermarkFile).doesNotExist();
+    }
+
+    private static SscsCaseDetails caseModifiedAt(Long caseId, LocalDateTime lastModified) {
+        return SscsCaseDetails.builder().id(caseId).lastModified(lastModified).build();
+    }
+}
@@ -0,0 +1,87 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static uk.gov.hmcts.reform.sscs.ccd.domain.YesNo.NO;
+import static uk.gov.hmcts.reform.sscs.ccd.domain.YesNo.YES;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+
+class CaseDataDeltaServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CaseDataDeltaService caseDataDeltaService =
+            new CaseDataDeltaService(new SscsCaseDataConverter(), meterRegistry);
+
+    private SscsCaseData caseData;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(caseDataDeltaService, "enabled", true);
+        caseData = SscsCaseData.builder()
+                .ccdCaseId("1234")
+                .caseReference("SC001/22/00001")
+                .benefitCode("002")
+                .addDocuments(NO)
+                .build();
+    }
+
+    @Test
+    void givesNoSnapshotWhenDisabled() {
+        ReflectionTestUtils.setField(caseDataDeltaService, "enabled", false);
+
+        assertThat(caseDataDeltaService.snapshot("updateCaseOnly", caseData)).isNull();
+    }
+
+    @Test
+    void givesNoSnapshotForFullPayloadEventTypes() {
+        ReflectionTestUtils.setField(caseDataDeltaService, "fullPayloadEventTypes", new String[] {"validAppealCreated"});
+
+        assertThat(caseDataDeltaService.snapshot("validAppealCreated", caseData)).isNull();
+        assertThat(caseDataDeltaService.snapshot("updateCaseOnly", caseData)).isNotNull();
+    }
+
+    @Test
+    void returnsChangedAndClearedTopLevelFields() {
+        Map<String, Object> snapshot = caseDataDeltaService.snapshot("updateCaseOnly", caseData);
+        caseData.setAddDocuments(YES);
+        caseData.setBenefitCode(null);
+
+        Map<String, Object> changedFields = caseDataDeltaService.changedFields(1234L, "updateCaseOnly", snapshot, caseData);
+
+        assertThat(changedFields).containsOnly(entry("addDocuments", "Yes"), entry("benefitCode", null));
+    }
+
+    @Test
+    void recordsFullAndDeltaPayloadSizes() {
+        ReflectionTestUtils.setField(caseDataDeltaService, "measureFullPayload", true);
+        Map<String, Object> snapshot = caseDataDeltaService.snapshot("updateCaseOnly", caseData);
+        caseData.setAddDocuments(YES);
+
+        caseDataDeltaService.changedFields(1234L, "updateCaseOnly", snapshot, caseData);
+
+        DistributionSummary full = meterRegistry.get(CaseDataDeltaService.PAYLOAD_METRIC).tag("payload", "full").summary();
+        DistributionSummary delta = meterRegistry.get(CaseDataDeltaService.PAYLOAD_METRIC).tag("payload", "delta").summary();
+        assertThat(delta.totalAmount()).isEqualTo("{\"addDocuments\":\"Yes\"}".length());
+        assertThat(full.totalAmount()).isGreaterThan(delta.totalAmount());
+    }
+
+    @Test
+    void recordsOnlyTheDeltaPayloadSizeByDefault() {
+        Map<String, Object> snapshot = caseDataDeltaService.snapshot("updateCaseOnly", caseData);
+        caseData.setAddDocuments(YES);
+
+        caseDataDeltaService.changedFields(1234L, "updateCaseOnly", snapshot, caseData);
+        caseDataDeltaService.changedFields(1234L, "updateCaseOnly", snapshot, caseData);
+
+        DistributionSummary delta = meterRegistry.get(CaseDataDeltaService.PAYLOAD_METRIC).tag("payload", "delta").summary();
+        assertThat(delta.count()).isEqualTo(2);
+        assertThat(meterRegistry.find(CaseDataDeltaService.PAYLOAD_METRIC).tag("payload", "full").summary()).isNull();
+    }
+}
@@ -0,0 +1,96 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.ccd.exception.CcdException;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+
+@ExtendWith(MockitoExtension.class)
+class CcdAsyncServiceTest {
+
+    @Mock
+    private CcdService ccdService;
+
+    private ExecutorService executor;
+    private CcdAsyncService ccdAsyncService;
+
+    private final IdamTokens idamTokens = IdamTokens.builder()
+            .idamOauth2Token("Bearer token")
+            .serviceAuthorization("s2s")
+            .roles(List.of("caseworker-sscs"))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        ccdAsyncService = new CcdAsyncService(ccdService, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ccdAsyncService.destroy();
+        MDC.clear();
+    }
+
+    @Test
+    void runsOperationsWithTheCallersMdcContextAndRestoresTheThreadsOwn() throws Exception {
+        AtomicReference<String> requestId = new AtomicReference<>();
+        SscsCaseDetails caseDetails = SscsCaseDetails.builder().id(1L).build();
+        when(ccdService.getByCaseId(eq(1L), any())).thenAnswer(invocation -> {
+            requestId.set(MDC.get("requestId"));
+            return caseDetails;
+        });
+
+        MDC.put("requestId", "abc");
+        CompletableFuture<SscsCaseDetails> read = ccdAsyncService.getByCaseId(1L, idamTokens);
+
+        assertThat(read.get()).isSameAs(caseDetails);
+        assertThat(requestId.get()).isEqualTo("abc");
+        assertThat(executor.submit(() -> MDC.get("requestId")).get()).isNull();
+    }
+
+    @Test
+    void passesACopyOfTheTokensTakenWhenTheOperationWasSubmitted() throws Exception {
+        AtomicReference<IdamTokens> used = new AtomicReference<>();
+        when(ccdService.findCaseBy(eq("data.caseReference"), eq("SC001/22/00001"), any())).thenAnswer(invocation -> {
+            used.set(invocation.getArgument(2));
+            return List.of();
+        });
+
+        CompletableFuture<List<SscsCaseDetails>> search = ccdAsyncService.findCaseBy("data.caseReference", "SC001/22/00001", idamTokens);
+        search.get();
+        idamTokens.setIdamOauth2Token("Bearer refreshed");
+
+        assertThat(used.get()).isNotSameAs(idamTokens);
+        assertThat(used.get().getIdamOauth2Token()).isEqualTo("Bearer token");
+        assertThat(used.get().getRoles()).containsExactly("caseworker-sscs");
+    }
+
+    @Test
+    void completesExceptionallyWhenTheOperationFails() {
+        CcdException failure = new CcdException("Error while getting case from ccd", new RuntimeException());
+        when(ccdService.findCaseByAppealNumber("appeal", idamTokens)).thenThrow(failure);
+
+        CompletableFuture<SscsCaseDetails> search = ccdAsyncService.findCaseByAppealNumber("appeal", idamTokens);
+
+        assertThatThrownBy(search::join).isInstanceOf(CompletionException.class).hasCause(failure);
+    }
+}
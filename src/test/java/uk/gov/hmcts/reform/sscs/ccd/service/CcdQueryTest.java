@@ -0,0 +1,60 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.hmcts.reform.sscs.ccd.service.CcdQuery.bool;
+import static uk.gov.hmcts.reform.sscs.ccd.service.CcdQuery.match;
+import static uk.gov.hmcts.reform.sscs.ccd.service.CcdQuery.range;
+import static uk.gov.hmcts.reform.sscs.ccd.service.CcdQuery.term;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CcdQueryTest {
+
+    @Test
+    void writesBoolQueriesWithOnlyTheClausesThatWereAdded() {
+        String json = CcdQuery.search(bool()
+                        .must(match("data.caseReference", "SC001/22/00001").and())
+                        .filter(term("state", "readyToList"))
+                        .should(match("data.dwpFurtherInfo", "No")))
+                .toJson();
+
+        assertThat(json).isEqualTo("{\"query\":{\"bool\":{"
+                + "\"must\":[{\"match\":{\"data.caseReference\":{\"query\":\"SC001/22/00001\",\"operator\":\"AND\"}}}],"
+                + "\"filter\":[{\"term\":{\"state\":{\"value\":\"readyToList\"}}}],"
+                + "\"should\":[{\"match\":{\"data.dwpFurtherInfo\":{\"query\":\"No\"}}}]}}}");
+    }
+
+    @Test
+    void writesRangesSizeSortAndSource() {
+        String json = CcdQuery.search(bool()
+                        .mustNot(term("data.isDeleted", true))
+                        .filter(range("last_modified").gte("2024-10-01T00:00:00").lt("2024-10-02T00:00:00"))
+                        .minimumShouldMatch(1))
+                .size(50)
+                .from(100)
+                .sortAscending("last_modified")
+                .sortDescending("reference")
+                .source(List.of("reference", "data.caseReference"))
+                .toJson();
+
+        assertThat(json).isEqualTo("{\"from\":100,\"size\":50,\"query\":{\"bool\":{"
+                + "\"filter\":[{\"range\":{\"last_modified\":{\"gte\":\"2024-10-01T00:00:00\",\"lt\":\"2024-10-02T00:00:00\"}}}],"
+                + "\"must_not\":[{\"term\":{\"data.isDeleted\":{\"value\":true}}}],"
+                + "\"minimum_should_match\":1}},"
+                + "\"_source\":{\"includes\":[\"reference\",\"data.caseReference\"]},"
+                + "\"sort\":[{\"last_modified\":{\"order\":\"asc\"}},{\"reference\":{\"order\":\"desc\"}}]}");
+    }
+
+    @Test
+    void escapesStringsAndAppendsToAReusedBuffer() {
+        StringBuilder buffer = new StringBuilder();
+        CcdQuery.search(term("data.name", "O\"Brien\\\n")).writeTo(buffer);
+        buffer.setLength(0);
+        CcdQuery.search(term("data.count", 3)).size(0).writeTo(buffer);
+
+        assertThat(CcdQuery.search(term("data.name", "O\"Brien\\\n")).toJson())
+                .isEqualTo("{\"query\":{\"term\":{\"data.name\":{\"value\":\"O\\\"Brien\\\\\\n\"}}}}");
+        assertThat(buffer).hasToString("{\"size\":0,\"query\":{\"term\":{\"data.count\":{\"value\":3}}}}");
+    }
+}
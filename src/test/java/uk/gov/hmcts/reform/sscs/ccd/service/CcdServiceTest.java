@@ -26,6 +26,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDataContent;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.SearchResult;
@@ -260,6 +261,45 @@ public class CcdServiceTest {
         assertNotNull(caseByAppealNumber);
     }
 
+    @Test
+    public void shouldRetrieveAppealByAppealNumberWithExactMatchFiltersWhenEnabled() {
+        ReflectionTestUtils.setField(ccdService, "exactMatchFilters", true);
+        String query = SscsQueries.findCaseByTyaNumberFilter(REPRESENTATIVE_APPEAL_NUMBER).toJson();
+
+        when(ccdClient.searchCases(idamTokens, query)).thenReturn(SearchResult.builder().cases(singletonList(caseDetails)).build());
+
+        SscsCaseDetails caseByAppealNumber = ccdService.findCaseByAppealNumber(REPRESENTATIVE_APPEAL_NUMBER, idamTokens);
+
+        verify(ccdClient).searchCases(idamTokens, query);
+        assertNotNull(caseByAppealNumber);
+    }
+
+    @Test
+    public void shouldFindCaseByNinoBenefitTypeAndMrnDateWithExactMatchFiltersWhenEnabled() {
+        ReflectionTestUtils.setField(ccdService, "exactMatchFilters", true);
+        String query = SscsQueries.findCcdCaseByNinoAndBenefitTypeAndMrnDateFilter("JT123456B", "JSA", "2018-01-01").toJson();
+
+        when(ccdClient.searchCases(idamTokens, query)).thenReturn(SearchResult.builder().cases(singletonList(caseDetails)).build());
+
+        SscsCaseDetails result = ccdService.findCcdCaseByNinoAndBenefitTypeAndMrnDate("JT123456B", "JSA", "2018-01-01", idamTokens);
+
+        verify(ccdClient).searchCases(idamTokens, query);
+        assertNotNull(result);
+    }
+
+    @Test
+    public void shouldNormaliseTheNinoAndBenefitTypeForExactMatchFilters() {
+        ReflectionTestUtils.setField(ccdService, "exactMatchFilters", true);
+        String query = SscsQueries.findCcdCaseByNinoAndBenefitTypeAndMrnDateFilter("JT123456B", "JSA", "2018-01-01").toJson();
+
+        when(ccdClient.searchCases(idamTokens, query)).thenReturn(SearchResult.builder().cases(singletonList(caseDetails)).build());
+
+        SscsCaseDetails result = ccdService.findCcdCaseByNinoAndBenefitTypeAndMrnDate("jt 12 34 56 b", "jsa", "2018-01-01", idamTokens);
+
+        verify(ccdClient).searchCases(idamTokens, query);
+        assertNotNull(result);
+    }
+
     @Test
     public void shouldReturnNullIfNoAppealFoundForGivenAppealNumber() {
         SearchSourceBuilder query = SscsQueryBuilder.findCaseByTyaNumberQuery(REPRESENTATIVE_APPEAL_NUMBER);
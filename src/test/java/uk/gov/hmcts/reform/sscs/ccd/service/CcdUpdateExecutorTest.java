@@ -0,0 +1,110 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.hmcts.reform.sscs.exception.CaseModifiedConcurrentlyException;
+import uk.gov.hmcts.reform.sscs.exception.ExitRetryableException;
+
+class CcdUpdateExecutorTest {
+
+    private static final Long CASE_ID = 1234L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    private CcdUpdateExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new CcdUpdateExecutor(meterRegistry);
+        ReflectionTestUtils.setField(executor, "initialBackoffMillis", 0L);
+    }
+
+    @Test
+    void retriesConflictsAndCountsThemPerEventType() {
+        String result = executor.execute(CASE_ID, "updateHearing", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw feignException(409);
+            }
+            return "submitted";
+        });
+
+        assertThat(result).isEqualTo("submitted");
+        assertThat(attempts).hasValue(3);
+        assertThat(meterRegistry.get(CcdUpdateExecutor.CONFLICTS_METRIC).tag("eventType", "updateHearing").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void countsConcurrentModificationAgainstTheEventThatHitIt() {
+        executor.execute(CASE_ID, "dynamicEvent", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new CaseModifiedConcurrentlyException("modified", "postponement");
+            }
+            return null;
+        });
+
+        assertThat(meterRegistry.get(CcdUpdateExecutor.CONFLICTS_METRIC).tag("eventType", "postponement").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void givesUpAfterMaxConflictAttempts() {
+        ReflectionTestUtils.setField(executor, "conflictMaxAttempts", 4);
+
+        assertThatThrownBy(() -> executor.execute(CASE_ID, "updateHearing", () -> {
+            attempts.incrementAndGet();
+            throw feignException(409);
+        })).isInstanceOf(FeignException.Conflict.class);
+        assertThat(attempts).hasValue(4);
+    }
+
+    @Test
+    void neverRetriesOtherClientErrors() {
+        assertThatThrownBy(() -> executor.execute(CASE_ID, "updateHearing", () -> {
+            attempts.incrementAndGet();
+            throw feignException(422);
+        })).isInstanceOf(FeignException.UnprocessableEntity.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void neverRetriesExitRetryableException() {
+        assertThatThrownBy(() -> executor.execute(CASE_ID, "updateHearing", () -> {
+            attempts.incrementAndGet();
+            throw new ExitRetryableException("stop", null);
+        })).isInstanceOf(ExitRetryableException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void retriesServerErrorsUpToMaxAttempts() {
+        assertThatThrownBy(() -> executor.execute(CASE_ID, "updateHearing", () -> {
+            attempts.incrementAndGet();
+            throw feignException(503);
+        })).isInstanceOf(FeignException.ServiceUnavailable.class);
+        assertThat(attempts).hasValue(3);
+        assertThat(meterRegistry.find(CcdUpdateExecutor.CONFLICTS_METRIC).counter()).isNull();
+    }
+
+    private static FeignException feignException(int status) {
+        Request request = Request.create(Request.HttpMethod.POST, "/cases", Map.of(), null, StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("submitEventForCaseWorker", Response.builder()
+                .status(status)
+                .reason("status " + status)
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+}
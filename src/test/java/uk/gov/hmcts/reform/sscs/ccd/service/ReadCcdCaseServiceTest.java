@@ -4,11 +4,31 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.openMocks;
 
+import com.google.common.base.Ticker;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.hmcts.reform.sscs.ccd.client.CcdClient;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
 import uk.gov.hmcts.reform.sscs.idam.IdamService;
 import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
@@ -58,13 +78,47 @@ public class ReadCcdCaseServiceTest {
         when(ccdClient.readForCaseworker(idamTokens, caseId)).thenReturn(caseDetails);
         when(sscsCcdConvertService.getCaseDetails(caseDetails)).thenReturn(sscsCaseDetails);
 
-        SscsCaseDetails byCaseId = readCcdCaseService.recover(caseId);
+        SscsCaseDetails byCaseId = readCcdCaseService.recover(feignException(401), caseId);
 
+        InOrder inOrder = inOrder(idamService);
+        inOrder.verify(idamService).invalidateTokens();
+        inOrder.verify(idamService).getIdamTokens();
         verify(ccdClient, times(1)).readForCaseworker(idamTokens, caseId);
         assertNotNull(byCaseId);
         assertEquals(caseId.longValue(), byCaseId.getId().longValue());
     }
 
+    @Test
+    public void shouldKeepTheCachedIdamTokensWhenRecoveringFromAFailureThatIsNotAnAuthFailure() {
+        Long caseId = 1L;
+        IdamTokens idamTokens = IdamTokens.builder().build();
+        CaseDetails caseDetails = CaseDetails.builder().id(caseId).build();
+
+        when(idamService.getIdamTokens()).thenReturn(idamTokens);
+        when(ccdClient.readForCaseworker(idamTokens, caseId)).thenReturn(caseDetails);
+        when(sscsCcdConvertService.getCaseDetails(caseDetails)).thenReturn(SscsCaseDetails.builder().id(caseId).build());
+
+        readCcdCaseService.recover(feignException(404), caseId);
+
+        verify(idamService, never()).invalidateTokens();
+        verify(idamService).getIdamTokens();
+    }
+
+    @Test
+    public void shouldStreamSscsCaseDetailsForGivenCaseIdWhenStreamingDecodeEnabled() {
+        Long caseId = 1L;
+        IdamTokens idamTokens = IdamTokens.builder().build();
+        SscsCaseDetails sscsCaseDetails = SscsCaseDetails.builder().id(caseId).build();
+
+        when(ccdClient.isStreamingDecodeEnabled()).thenReturn(true);
+        when(ccdClient.readSscsCaseDetailsForCaseworker(idamTokens, caseId)).thenReturn(sscsCaseDetails);
+
+        SscsCaseDetails byCaseId = readCcdCaseService.getByCaseId(caseId, idamTokens);
+
+        verify(ccdClient, never()).readForCaseworker(idamTokens, caseId);
+        verifyNoInteractions(sscsCcdConvertService);
+        assertEquals(sscsCaseDetails, byCaseId);
+    }
 
     @Test
     public void shouldReturnNullForGivenCaseId() {
@@ -78,4 +132,143 @@ public class ReadCcdCaseServiceTest {
         verify(ccdClient, times(1)).readForCaseworker(idamTokens, caseId);
         assertNull(byCaseId);
     }
+
+    @Test
+    public void shouldReturnResultPerCaseIdForBatchRead() {
+        IdamTokens idamTokens = IdamTokens.builder().build();
+        CaseDetails caseDetails = CaseDetails.builder().id(1L).build();
+        SscsCaseDetails sscsCaseDetails = SscsCaseDetails.builder().id(1L).build();
+        RuntimeException failure = new RuntimeException("ccd unavailable");
+
+        when(idamService.getIdamTokens()).thenReturn(idamTokens);
+        when(ccdClient.readForCaseworker(idamTokens, 1L)).thenReturn(caseDetails);
+        when(ccdClient.readForCaseworker(idamTokens, 2L)).thenThrow(failure);
+        when(sscsCcdConvertService.getCaseDetails(caseDetails)).thenReturn(sscsCaseDetails);
+
+        Map<Long, BatchReadResult> results = readCcdCaseService.getByCaseIds(List.of(2L, 1L, 2L), idamTokens);
+
+        assertEquals(List.of(2L, 1L), List.copyOf(results.keySet()));
+        assertTrue(results.get(1L).isSuccess());
+        assertEquals(sscsCaseDetails, results.get(1L).caseDetails());
+        assertFalse(results.get(2L).isSuccess());
+        assertEquals(failure, results.get(2L).failure());
+        verify(ccdClient, times(4)).readForCaseworker(idamTokens, 2L);
+        verify(idamService, times(1)).getIdamTokens();
+    }
+
+    @Test
+    public void shouldShareOneReadBetweenConcurrentCallersAndGiveEachItsOwnCopy() throws Exception {
+        Long caseId = 1L;
+        IdamTokens idamTokens = IdamTokens.builder().idamOauth2Token("token").build();
+        AtomicReference<Thread> readingThread = new AtomicReference<>();
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch releaseRead = new CountDownLatch(1);
+        CountDownLatch joinersCopying = new CountDownLatch(3);
+        CountDownLatch firstCallerChanged = new CountDownLatch(1);
+        SscsCcdConvertService convertService = new SscsCcdConvertService() {
+            @Override
+            public SscsCaseDetails copyOf(SscsCaseDetails caseDetails) {
+                if (Thread.currentThread() != readingThread.get()) {
+                    joinersCopying.countDown();
+                    awaitLatch(firstCallerChanged);
+                }
+                return super.copyOf(caseDetails);
+            }
+        };
+        ReadCcdCaseService coalescingService = new ReadCcdCaseService(idamService, ccdClient, convertService);
+        ReflectionTestUtils.setField(coalescingService, "coalesceReads", true);
+
+        when(ccdClient.isStreamingDecodeEnabled()).thenReturn(true);
+        when(ccdClient.readSscsCaseDetailsForCaseworker(idamTokens, caseId)).thenAnswer(invocation -> {
+            readingThread.set(Thread.currentThread());
+            readStarted.countDown();
+            releaseRead.await();
+            return SscsCaseDetails.builder().id(caseId)
+                    .data(SscsCaseData.builder().ccdCaseId("1").caseReference("SC001/22/00001").build())
+                    .build();
+        });
+
+        List<Future<SscsCaseDetails>> reads = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            reads.add(executor.submit(() -> coalescingService.getByCaseId(caseId, idamTokens)));
+            readStarted.await();
+            CompletableFuture<?> inFlightRead = inFlightReadOf(coalescingService);
+            for (int i = 0; i < 3; i++) {
+                reads.add(executor.submit(() -> coalescingService.getByCaseId(caseId, idamTokens)));
+            }
+            awaitDependents(inFlightRead, 3);
+            releaseRead.countDown();
+
+            SscsCaseDetails first = reads.get(0).get();
+            assertTrue(joinersCopying.await(5, TimeUnit.SECONDS));
+            first.getData().setCaseReference("changed");
+            firstCallerChanged.countDown();
+
+            verify(ccdClient, times(1)).readSscsCaseDetailsForCaseworker(idamTokens, caseId);
+            for (Future<SscsCaseDetails> read : reads.subList(1, 4)) {
+                SscsCaseDetails joined = read.get();
+                assertNotSame(first.getData(), joined.getData());
+                assertEquals("SC001/22/00001", joined.getData().getCaseReference());
+            }
+        }
+    }
+
+    @Test
+    public void shouldServeRepeatedReadsFromTheCaseCacheWhenEnabled() {
+        Long caseId = 1L;
+        IdamTokens idamTokens = IdamTokens.builder().idamOauth2Token("token").build();
+        SscsCaseDetailsCache cache = new SscsCaseDetailsCache(new SscsCcdConvertService(), new SimpleMeterRegistry(),
+                true, Duration.ofSeconds(5), 10, Ticker.systemTicker());
+        ReadCcdCaseService cachingService = new ReadCcdCaseService(idamService, ccdClient, new SscsCcdConvertService(), cache);
+
+        when(ccdClient.isStreamingDecodeEnabled()).thenReturn(true);
+        when(ccdClient.readSscsCaseDetailsForCaseworker(idamTokens, caseId)).thenReturn(SscsCaseDetails.builder()
+                .id(caseId)
+                .data(SscsCaseData.builder().ccdCaseId("1").caseReference("SC001/22/00001").build())
+                .build());
+
+        SscsCaseDetails first = cachingService.getByCaseId(caseId, idamTokens);
+        SscsCaseDetails second = cachingService.getByCaseId(caseId, idamTokens);
+
+        verify(ccdClient, times(1)).readSscsCaseDetailsForCaseworker(idamTokens, caseId);
+        assertNotSame(first.getData(), second.getData());
+        assertEquals("SC001/22/00001", second.getData().getCaseReference());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FeignException feignException(int status) {
+        Request request = Request.create(Request.HttpMethod.GET, "/cases/1", Map.of(), null, StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("readForCaseWorker", Response.builder()
+                .status(status)
+                .reason("status " + status)
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+
+    private static CompletableFuture<?> inFlightReadOf(ReadCcdCaseService service) {
+        Map<?, CompletableFuture<?>> inFlightReads =
+                (Map<?, CompletableFuture<?>>) ReflectionTestUtils.getField(service, "inFlightReads");
+        return inFlightReads.values().iterator().next();
+    }
+
+    /**
+     * Waits until the given number of callers are blocked joining the read.
+     */
+    private static void awaitDependents(CompletableFuture<?> future, int dependents) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (future.getNumberOfDependents() < dependents) {
+            assertTrue(System.nanoTime() < deadline, "callers did not join the in-flight read");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
 }
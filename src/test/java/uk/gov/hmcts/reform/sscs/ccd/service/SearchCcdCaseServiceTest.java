@@ -4,17 +4,27 @@ import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.hmcts.reform.sscs.ccd.domain.State.DRAFT;
 import static uk.gov.hmcts.reform.sscs.ccd.domain.State.DRAFT_ARCHIVED;
 import static uk.gov.hmcts.reform.sscs.ccd.service.SscsCcdConvertService.normaliseNino;
 import static uk.gov.hmcts.reform.sscs.ccd.service.SscsQueryBuilder.findCaseBySingleField;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 import org.assertj.core.util.Lists;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,14 +32,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.SearchResult;
 import uk.gov.hmcts.reform.sscs.ccd.client.CcdClient;
+import uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Subscription;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Subscriptions;
 import uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils;
 import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
 
@@ -171,15 +186,11 @@ public class SearchCcdCaseServiceTest {
     @Test
     public void shouldReturnListOfSubmittedCases() {
         var draftCase = CaseDetails.builder().state(DRAFT.getId()).build();
-        var draftSscsCase = SscsCaseDetails.builder().state(DRAFT.getId()).build();
         var archivedCase = CaseDetails.builder().state(DRAFT_ARCHIVED.getId()).build();
-        var archivedSscsCase = SscsCaseDetails.builder().state(DRAFT_ARCHIVED.getId()).build();
         SearchSourceBuilder query = findCaseBySingleField("data.caseReference", CASE_REF);
         SearchResult searchResult = SearchResult.builder().cases(List.of(caseDetails, draftCase, archivedCase)).build();
         when(ccdClient.searchCases(idamTokens, query.toString())).thenReturn(searchResult);
         when(sscsCcdConvertService.getCaseDetails(caseDetails)).thenReturn(sscsCaseDetails);
-        when(sscsCcdConvertService.getCaseDetails(draftCase)).thenReturn(draftSscsCase);
-        when(sscsCcdConvertService.getCaseDetails(archivedCase)).thenReturn(archivedSscsCase);
 
         List<SscsCaseDetails> result =
                 searchCcdCaseService.findSubmittedCasesBySearchCriteria(query.toString(), idamTokens);
@@ -187,6 +198,8 @@ public class SearchCcdCaseServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(sscsCaseDetails, result.get(0));
+        verify(sscsCcdConvertService, never()).getCaseDetails(draftCase);
+        verify(sscsCcdConvertService, never()).getCaseDetails(archivedCase);
     }
 
     @Test
@@ -292,4 +305,153 @@ public class SearchCcdCaseServiceTest {
     public void shouldReturnOriginalNinoIfNull() {
         assertNull(normaliseNino(null));
     }
+
+    @Test
+    public void shouldStreamSubmittedCasesPageByPage() {
+        ReflectionTestUtils.setField(searchCcdCaseService, "searchPageSize", 2);
+        var firstCase = CaseDetails.builder().id(1L).state("appealCreated").build();
+        var draftCase = CaseDetails.builder().id(2L).state(DRAFT.getId()).build();
+        var lastCase = CaseDetails.builder().id(3L).state("withDwp").build();
+        var firstSscsCase = SscsCaseDetails.builder().id(1L).state("appealCreated").build();
+        var lastSscsCase = SscsCaseDetails.builder().id(3L).state("withDwp").build();
+
+        when(ccdClient.searchCases(eq(idamTokens), anyString()))
+                .thenReturn(SearchResult.builder().cases(List.of(firstCase, draftCase)).build())
+                .thenReturn(SearchResult.builder().cases(List.of(lastCase)).build());
+        when(sscsCcdConvertService.getCaseDetails(firstCase)).thenReturn(firstSscsCase);
+        when(sscsCcdConvertService.getCaseDetails(lastCase)).thenReturn(lastSscsCase);
+
+        List<SscsCaseDetails> cases;
+        try (Stream<SscsCaseDetails> stream = searchCcdCaseService.streamSubmittedCasesBySearchCriteria(
+                "{\"query\":{\"match_all\":{}}}", idamTokens)) {
+            cases = stream.toList();
+        }
+
+        assertEquals(List.of(firstSscsCase, lastSscsCase), cases);
+        verify(sscsCcdConvertService, never()).getCaseDetails(draftCase);
+        ArgumentCaptor<String> queries = ArgumentCaptor.forClass(String.class);
+        verify(ccdClient, times(2)).searchCases(eq(idamTokens), queries.capture());
+        assertEquals("{\"query\":{\"match_all\":{}},\"size\":2,\"sort\":[{\"reference.keyword\":\"asc\"}]}",
+                queries.getAllValues().get(0));
+        assertEquals("{\"query\":{\"match_all\":{}},\"size\":2,\"sort\":[{\"reference.keyword\":\"asc\"}],"
+                + "\"search_after\":[\"2\"]}", queries.getAllValues().get(1));
+    }
+
+    @Test
+    public void shouldOnlyRequestProjectedFieldsAndCaseMetadata() {
+        when(ccdClient.searchCases(eq(idamTokens), anyString()))
+                .thenReturn(SearchResult.builder().cases(singletonList(caseDetails)).build());
+        when(sscsCcdConvertService.getCaseDetails(caseDetails)).thenReturn(sscsCaseDetails);
+
+        List<SscsCaseDetails> cases = searchCcdCaseService.findProjectedCasesBySearchCriteria(
+                "{\"query\":{\"match_all\":{}}}", List.of("subscriptions", "data.appeal.benefitType"), idamTokens);
+
+        assertEquals(List.of(sscsCaseDetails), cases);
+        verify(ccdClient).searchCases(idamTokens, "{\"query\":{\"match_all\":{}},\"_source\":[\"reference\","
+                + "\"jurisdiction\",\"case_type_id\",\"state\",\"created_date\",\"last_modified\","
+                + "\"security_classification\",\"data.subscriptions\",\"data.appeal.benefitType\"]}");
+    }
+
+    @Test
+    public void shouldOnlyConvertHitsPassingTheMetadataFilter() {
+        var withDwpCase = CaseDetails.builder().id(1L).state("withDwp").build();
+        var readyToListCase = CaseDetails.builder().id(2L).state("readyToList").build();
+        var readyToListSscsCase = SscsCaseDetails.builder().id(2L).state("readyToList").build();
+        when(ccdClient.searchCases(idamTokens, "query"))
+                .thenReturn(SearchResult.builder().cases(List.of(withDwpCase, readyToListCase)).build());
+        when(sscsCcdConvertService.getCaseDetails(readyToListCase)).thenReturn(readyToListSscsCase);
+
+        List<SscsCaseDetails> result = searchCcdCaseService.findCasesBySearchCriteria(
+                "query", CaseMetadataPredicates.inState("readyToList"), idamTokens);
+
+        assertEquals(List.of(readyToListSscsCase), result);
+        verify(sscsCcdConvertService, never()).getCaseDetails(withDwpCase);
+    }
+
+    @Test
+    public void shouldPassTheMetadataFilterToTheStreamingDecoder() {
+        var metadataFilter = CaseMetadataPredicates.inState("readyToList");
+        var readyToListSscsCase = SscsCaseDetails.builder().id(2L).state("readyToList").build();
+        when(ccdClient.isStreamingDecodeEnabled()).thenReturn(true);
+        when(ccdClient.searchSscsCases(idamTokens, "query", metadataFilter)).thenReturn(List.of(readyToListSscsCase));
+
+        List<SscsCaseDetails> result = searchCcdCaseService.findCasesBySearchCriteria("query", metadataFilter, idamTokens);
+
+        assertEquals(List.of(readyToListSscsCase), result);
+        verify(ccdClient, never()).searchCases(any(), anyString());
+    }
+
+    @Test
+    public void shouldFindCasesForManyTyaNumbersWithOneSearchPerBatch() {
+        ReflectionTestUtils.setField(searchCcdCaseService, "batchLookupMaxKeys", 2);
+        var found = CaseDetails.builder().id(1L).state("withDwp").build();
+        var foundSscsCase = SscsCaseDetails.builder().id(1L).state("withDwp")
+                .data(SscsCaseData.builder()
+                        .subscriptions(Subscriptions.builder()
+                                .appellantSubscription(Subscription.builder().tya("tya1").build())
+                                .representativeSubscription(Subscription.builder().tya("tya2").build())
+                                .build())
+                        .build())
+                .build();
+
+        when(ccdClient.searchCases(eq(idamTokens), anyString()))
+                .thenReturn(SearchResult.builder().cases(List.of(found)).build())
+                .thenReturn(SearchResult.builder().cases(List.of()).build());
+        when(sscsCcdConvertService.getCaseDetails(found)).thenReturn(foundSscsCase);
+
+        Map<String, List<SscsCaseDetails>> cases = searchCcdCaseService.findCasesByTyaNumbers(
+                List.of("tya1", "tya2", "tya3", "tya1"), idamTokens);
+
+        assertEquals(List.of("tya1", "tya2", "tya3"), List.copyOf(cases.keySet()));
+        assertEquals(List.of(foundSscsCase), cases.get("tya1"));
+        assertEquals(List.of(foundSscsCase), cases.get("tya2"));
+        assertTrue(cases.get("tya3").isEmpty());
+        ArgumentCaptor<String> queries = ArgumentCaptor.forClass(String.class);
+        verify(ccdClient, times(2)).searchCases(eq(idamTokens), queries.capture());
+        assertTrue(queries.getAllValues().get(0).contains(
+                "{\"terms\":{\"data.subscriptions.appellantSubscription.tya.keyword\":[\"tya1\",\"tya2\"]}}"));
+        assertTrue(queries.getAllValues().get(1).contains(
+                "{\"terms\":{\"data.subscriptions.appellantSubscription.tya.keyword\":[\"tya3\"]}}"));
+    }
+
+    @Test
+    public void shouldCountSubmittedCasesWithoutFetchingThem() {
+        when(ccdClient.searchCases(eq(idamTokens), anyString())).thenReturn(SearchResult.builder().total(3).build());
+
+        long count = searchCcdCaseService.countCases("{\"query\":{\"match_all\":{}},\"size\":10}", idamTokens);
+
+        assertEquals(3, count);
+        verify(ccdClient).searchCases(idamTokens, "{\"query\":{\"bool\":{\"filter\":[{\"match_all\":{}}],"
+                + "\"must_not\":[{\"terms\":{\"state\":[\"draft\",\"draftArchived\"]}}]}},\"size\":0,\"track_total_hits\":true}");
+        verify(sscsCcdConvertService, never()).getCaseDetails(any(CaseDetails.class));
+    }
+
+    @Test
+    public void shouldCheckWhetherASubmittedCaseExistsWithoutFetchingIt() {
+        when(ccdClient.searchCases(eq(idamTokens), anyString()))
+                .thenReturn(SearchResult.builder().total(1).build())
+                .thenReturn(SearchResult.builder().total(0).build());
+
+        assertTrue(searchCcdCaseService.existsCase("{\"query\":{\"match_all\":{}}}", idamTokens));
+        assertFalse(searchCcdCaseService.existsCase("{\"query\":{\"match_all\":{}}}", idamTokens));
+        verify(ccdClient, times(2)).searchCases(idamTokens, "{\"query\":{\"bool\":{\"filter\":[{\"match_all\":{}}],"
+                + "\"must_not\":[{\"terms\":{\"state\":[\"draft\",\"draftArchived\"]}}]}},\"size\":0,\"track_total_hits\":1}");
+    }
+
+    @Test
+    public void shouldFindAPageOfCasesChangedAfterTheWatermarkOldestFirst() {
+        String pageQuery = "{\"query\":{\"bool\":{\"filter\":["
+                + "{\"bool\":{\"filter\":[{\"match_all\":{}}],\"must_not\":[{\"terms\":{\"state\":[\"draft\",\"draftArchived\"]}}]}},"
+                + "{\"range\":{\"last_modified\":{\"gte\":1727776800500,\"lt\":1727784000000,\"format\":\"epoch_millis\"}}}]}},"
+                + "\"size\":50,\"sort\":[{\"last_modified\":\"asc\"},{\"reference.keyword\":\"asc\"}],"
+                + "\"search_after\":[1727776800500,\"42\"]}";
+        when(ccdClient.searchCases(idamTokens, pageQuery)).thenReturn(SearchResult.builder().cases(singletonList(caseDetails)).build());
+        when(sscsCcdConvertService.getCaseDetails(caseDetails)).thenReturn(sscsCaseDetails);
+
+        List<SscsCaseDetails> page = searchCcdCaseService.findCasesChangedAfter("{\"query\":{\"match_all\":{}}}",
+                new CaseChangeWatermark(LocalDateTime.of(2024, 10, 1, 10, 0, 0, 500_123_000), 42L),
+                LocalDateTime.of(2024, 10, 1, 12, 0), 50, idamTokens);
+
+        assertEquals(List.of(sscsCaseDetails), page);
+    }
 }
@@ -0,0 +1,43 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+
+public class SscsCaseDataConverterTest {
+
+    private final SscsCaseDataConverter underTest = new SscsCaseDataConverter();
+
+    @Test
+    public void shouldReuseTheSameReaderAndWriter() {
+        assertSame(underTest.getCaseDataReader(), underTest.getCaseDataReader());
+        assertSame(underTest.getCaseDataWriter(), underTest.getCaseDataWriter());
+    }
+
+    @Test
+    public void shouldReadUnknownEnumValuesAsNull() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("caseReference", "SC001/19/00365");
+        data.put("dwpState", "notARealDwpState");
+
+        SscsCaseData caseData = underTest.toCaseData(data);
+
+        assertEquals("SC001/19/00365", caseData.getCaseReference());
+        assertNull(caseData.getDwpState());
+    }
+
+    @Test
+    public void shouldWriteCaseDataToTheDataMapAndBack() {
+        SscsCaseData caseData = SscsCaseData.builder().caseReference("SC001/19/00365").benefitCode("002").build();
+
+        Map<String, Object> dataMap = underTest.toDataMap(caseData);
+
+        assertEquals("SC001/19/00365", dataMap.get("caseReference"));
+        assertEquals("002", underTest.toCaseData(dataMap).getBenefitCode());
+    }
+}
@@ -0,0 +1,139 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+
+class SscsCaseDetailsCacheTest {
+
+    private static final Long CASE_ID = 1234L;
+    private static final LocalDateTime LAST_MODIFIED = LocalDateTime.of(2024, 10, 18, 10, 0);
+    private static final IdamTokens TOKENS = IdamTokens.builder().idamOauth2Token("Bearer caseworker").build();
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+
+    private MeterRegistry meterRegistry;
+    private SscsCaseDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SscsCaseDetailsCache(new SscsCcdConvertService(), meterRegistry, true,
+                Duration.ofSeconds(5), 10, ticker);
+    }
+
+    @Test
+    void returnsCopiesOfTheCachedCase() {
+        SscsCaseDetails caseDetails = caseDetails(LAST_MODIFIED, "SC001/22/00001");
+        cache.put(caseDetails, TOKENS);
+        caseDetails.getData().setCaseReference("changed by caller");
+
+        SscsCaseDetails first = cache.get(CASE_ID, TOKENS).orElseThrow();
+        first.getData().setCaseReference("changed again");
+
+        assertThat(cache.get(CASE_ID, TOKENS)).get()
+                .extracting(cached -> cached.getData().getCaseReference())
+                .isEqualTo("SC001/22/00001");
+        assertThat(requests("hit")).isEqualTo(2);
+    }
+
+    @Test
+    void expiresCasesAfterTheTtl() {
+        cache.put(caseDetails(LAST_MODIFIED, "SC001/22/00001"), TOKENS);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        assertThat(cache.get(CASE_ID, TOKENS)).isEmpty();
+        assertThat(requests("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void dropsTheCachedCaseWhenItWasModifiedAtAnotherTime() {
+        cache.put(caseDetails(LAST_MODIFIED, "SC001/22/00001"), TOKENS);
+
+        assertThat(cache.getIfCurrent(CASE_ID, LAST_MODIFIED, TOKENS)).isPresent();
+        assertThat(cache.getIfCurrent(CASE_ID, LAST_MODIFIED.plusSeconds(1), TOKENS)).isEmpty();
+        assertThat(cache.get(CASE_ID, TOKENS)).isEmpty();
+    }
+
+    @Test
+    void keepsTheLaterVersionOfACase() {
+        cache.put(caseDetails(LAST_MODIFIED.plusMinutes(1), "newer"), TOKENS);
+        cache.put(caseDetails(LAST_MODIFIED, "older"), TOKENS);
+
+        assertThat(cache.get(CASE_ID, TOKENS).map(cached -> cached.getData().getCaseReference())).contains("newer");
+
+        cache.invalidate(CASE_ID);
+
+        assertThat(cache.get(CASE_ID, TOKENS)).isEmpty();
+    }
+
+    @Test
+    void onlyReturnsACaseToCallersWithTheTokenItWasReadWith() {
+        IdamTokens otherUser = IdamTokens.builder().idamOauth2Token("Bearer citizen").build();
+        cache.put(caseDetails(LAST_MODIFIED, "SC001/22/00001"), TOKENS);
+
+        assertThat(cache.get(CASE_ID, otherUser)).isEmpty();
+        assertThat(cache.getIfCurrent(CASE_ID, LAST_MODIFIED, otherUser)).isEmpty();
+        assertThat(cache.get(CASE_ID, IdamTokens.builder().build())).isEmpty();
+        assertThat(cache.get(CASE_ID, TOKENS)).isPresent();
+    }
+
+    @Test
+    void invalidatesACaseForEveryToken() {
+        IdamTokens otherUser = IdamTokens.builder().idamOauth2Token("Bearer citizen").build();
+        cache.put(caseDetails(LAST_MODIFIED, "SC001/22/00001"), TOKENS);
+        cache.put(caseDetails(LAST_MODIFIED, "SC001/22/00001"), otherUser);
+
+        assertThat(cache.getIfCurrent(CASE_ID, LAST_MODIFIED.plusSeconds(1), TOKENS)).isEmpty();
+
+        assertThat(cache.get(CASE_ID, otherUser)).isEmpty();
+    }
+
+    @Test
+    void countsAColdLookupByLastModifiedAsOneMiss() {
+        assertThat(cache.getIfCurrent(CASE_ID, LAST_MODIFIED, TOKENS)).isEmpty();
+        assertThat(cache.get(CASE_ID, TOKENS)).isEmpty();
+
+        assertThat(requests("miss")).isEqualTo(1);
+        assertThat(requests("hit")).isZero();
+    }
+
+    @Test
+    void cachesNothingWhenDisabled() {
+        SscsCaseDetailsCache disabled = SscsCaseDetailsCache.disabled();
+        disabled.put(caseDetails(LAST_MODIFIED, "SC001/22/00001"), TOKENS);
+
+        assertThat(disabled.get(CASE_ID, TOKENS)).isEqualTo(Optional.empty());
+        assertThat(disabled.getIfCurrent(CASE_ID, LAST_MODIFIED, TOKENS)).isEmpty();
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get(SscsCaseDetailsCache.REQUESTS_METRIC).tag("result", result).counter().count();
+    }
+
+    private static SscsCaseDetails caseDetails(LocalDateTime lastModified, String caseReference) {
+        return SscsCaseDetails.builder()
+                .id(CASE_ID)
+                .lastModified(lastModified)
+                .data(SscsCaseData.builder().ccdCaseId(CASE_ID.toString()).caseReference(caseReference).build())
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.ccd.client.model.Classification;
+import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
+import uk.gov.hmcts.reform.sscs.ccd.predicates.CaseMetadataPredicates;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+
+public class SscsCaseDetailsStreamingDecoderTest {
+
+    private final SscsCaseDetailsStreamingDecoder underTest = new SscsCaseDetailsStreamingDecoder(new SscsCaseDataConverter());
+
+    @Test
+    public void shouldDecodeCaseDetailsFromCallbackFixture() {
+        InputStream body = getClass().getClassLoader().getResourceAsStream("updateFurtherEvidence.json");
+
+        SscsCaseDetails caseDetails = underTest.decodeStartEvent(body);
+
+        assertEquals(1561554263234168L, caseDetails.getId());
+        assertEquals("validAppeal", caseDetails.getState());
+        assertEquals("Benefit", caseDetails.getCaseTypeId());
+        assertEquals(Classification.PUBLIC, caseDetails.getSecurityClassification());
+        assertEquals(LocalDateTime.of(2019, 6, 26, 13, 4, 23, 284000000), caseDetails.getCreatedDate());
+        assertEquals("1561554263234168", caseDetails.getData().getCcdCaseId());
+        assertEquals("AB555555B", caseDetails.getData().getAppeal().getAppellant().getIdentity().getNino());
+        assertEquals(1, caseDetails.getData().getSscsDocument().size());
+        assertNull(caseDetails.getEventToken());
+    }
+
+    @Test
+    public void shouldDecodeStartEventTokenAndEventId() {
+        String json = "{\"token\":\"eventToken\",\"case_details\":{\"id\":123,\"state\":\"appealCreated\","
+                + "\"last_modified\":\"2024-01-02T03:04:05.123\",\"case_data\":{\"caseReference\":\"SC123\","
+                + "\"appeal\":{\"appellant\":{\"identity\":{\"nino\":\"ab 12 34 56 c\"}}}}},\"event_id\":\"updateCaseOnly\"}";
+
+        SscsCaseDetails caseDetails = underTest.decodeStartEvent(stream(json));
+
+        assertEquals("eventToken", caseDetails.getEventToken());
+        assertEquals("updateCaseOnly", caseDetails.getEventId());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123000000), caseDetails.getLastModified());
+        assertEquals("SC123", caseDetails.getData().getCaseReference());
+        assertEquals("AB123456C", caseDetails.getData().getAppeal().getAppellant().getIdentity().getNino());
+    }
+
+    @Test
+    public void shouldDecodeStartEventMetadataWithoutCaseData() {
+        String json = "{\"token\":\"eventToken\",\"case_details\":{\"id\":123,\"case_data\":{\"caseReference\":\"SC123\","
+                + "\"sscsDocument\":[{\"value\":{}}]},\"state\":\"appealCreated\","
+                + "\"last_modified\":\"2024-01-02T03:04:05.123\"},\"event_id\":\"updateCaseOnly\"}";
+
+        StartEventResponse startEventResponse = underTest.decodeStartEventMetadata(stream(json));
+
+        assertEquals("eventToken", startEventResponse.getToken());
+        assertEquals("updateCaseOnly", startEventResponse.getEventId());
+        assertEquals(123L, startEventResponse.getCaseDetails().getId());
+        assertEquals("appealCreated", startEventResponse.getCaseDetails().getState());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123000000), startEventResponse.getCaseDetails().getLastModified());
+        assertNull(startEventResponse.getCaseDetails().getData());
+    }
+
+    @Test
+    public void shouldDecodeSearchResultCases() {
+        String json = "{\"total\":2,\"cases\":[{\"id\":1,\"state\":\"draft\",\"data\":{\"caseReference\":\"SC1\"}},"
+                + "{\"id\":2,\"state\":\"appealCreated\",\"locked_by_user_id\":null,\"case_data\":{\"caseReference\":\"SC2\"}}]}";
+
+        List<SscsCaseDetails> cases = underTest.decodeSearchResult(stream(json));
+
+        assertEquals(2, cases.size());
+        assertEquals("SC1", cases.get(0).getData().getCaseReference());
+        assertEquals("2", cases.get(1).getData().getCcdCaseId());
+        assertNull(cases.get(1).getLockedBy());
+    }
+
+    @Test
+    public void shouldOnlyBindCaseDataForSearchHitsPassingTheMetadataFilter() {
+        String json = "{\"total\":2,\"cases\":[{\"id\":1,\"case_data\":{\"caseReference\":\"SC1\","
+                + "\"appeal\":{\"appellant\":\"not an appellant\"}},\"state\":\"draft\"},"
+                + "{\"id\":2,\"case_data\":{\"caseReference\":\"SC2\"},\"state\":\"appealCreated\"}]}";
+
+        List<SscsCaseDetails> cases = underTest.decodeSearchResult(stream(json), CaseMetadataPredicates.notDraftOrArchivedDraft());
+
+        assertEquals(1, cases.size());
+        assertEquals(2L, cases.get(0).getId());
+        assertEquals("SC2", cases.get(0).getData().getCaseReference());
+        assertEquals("2", cases.get(0).getData().getCcdCaseId());
+    }
+
+    @Test
+    public void shouldReturnNullWhenSearchResultHasNoCases() {
+        assertNull(underTest.decodeSearchResult(stream("{\"total\":0}")));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(UTF_8));
+    }
+}
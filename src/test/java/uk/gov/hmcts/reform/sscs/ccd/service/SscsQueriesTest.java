@@ -0,0 +1,104 @@
+package uk.gov.hmcts.reform.sscs.ccd.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Iterator;
+import java.util.List;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the queries built without Elasticsearch against those of {@link SscsQueryBuilder}. Elasticsearch also
+ * writes out every default it applies, so each query need only be part of the Elasticsearch one.
+ */
+class SscsQueriesTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void findCaseBySingleFieldMatchesTheElasticsearchQuery() throws Exception {
+        assertPartOf(SscsQueries.findCaseBySingleField("data.caseReference", "SC001/19/00365"),
+                SscsQueryBuilder.findCaseBySingleField("data.caseReference", "SC001/19/00365"));
+    }
+
+    @Test
+    void findCaseByTyaNumberQueryMatchesTheElasticsearchQuery() throws Exception {
+        assertPartOf(SscsQueries.findCaseByTyaNumberQuery("tya123abc"),
+                SscsQueryBuilder.findCaseByTyaNumberQuery("tya123abc"));
+    }
+
+    @Test
+    void findCcdCaseByNinoAndBenefitTypeAndMrnDateQueryMatchesTheElasticsearchQuery() throws Exception {
+        assertPartOf(SscsQueries.findCcdCaseByNinoAndBenefitTypeAndMrnDateQuery("AB123456C", "PIP", "2018-01-01"),
+                SscsQueryBuilder.findCcdCaseByNinoAndBenefitTypeAndMrnDateQuery("AB123456C", "PIP", "2018-01-01"));
+    }
+
+    @Test
+    void findCaseByResponseReceivedStateQueryMatchesTheElasticsearchQuery() throws Exception {
+        assertPartOf(SscsQueries.findCaseByResponseReceivedStateAndNoDwpFurtherInfoAndLastModifiedDateQuery("2018-01-01"),
+                SscsQueryBuilder.findCaseByResponseReceivedStateAndNoDwpFurtherInfoAndLastModifiedDateQuery("2018-01-01"));
+    }
+
+    @Test
+    void withCaseDataProjectionMatchesTheElasticsearchQuery() throws Exception {
+        List<String> fields = List.of("subscriptions", "appeal.appellant.identity.nino");
+
+        assertPartOf(SscsQueries.withCaseDataProjection(SscsQueries.findCaseBySingleField("data.caseReference", "SC1"), fields),
+                SscsQueryBuilder.withCaseDataProjection(SscsQueryBuilder.findCaseBySingleField("data.caseReference", "SC1"), fields));
+    }
+
+    @Test
+    void findCaseByTyaNumberFilterLooksUpTheKeywordsOfSubmittedCases() {
+        String json = SscsQueries.findCaseByTyaNumberFilter("tya123abc").toJson();
+
+        assertThat(json)
+                .startsWith("{\"size\":1,\"track_total_hits\":1,\"query\":{\"bool\":{\"filter\":[{\"bool\":{\"should\":["
+                        + "{\"term\":{\"data.subscriptions.appellantSubscription.tya.keyword\":{\"value\":\"tya123abc\"}}},")
+                .endsWith("\"minimum_should_match\":1}}],\"must_not\":[{\"terms\":{\"state\":[\"draft\",\"draftArchived\"]}}]}}}")
+                .doesNotContain("\"match\"");
+    }
+
+    @Test
+    void findCcdCaseByNinoAndBenefitTypeAndMrnDateFilterUsesTermsInFilterContext() {
+        String json = SscsQueries.findCcdCaseByNinoAndBenefitTypeAndMrnDateFilter("AB123456C", "PIP", "2018-01-01").toJson();
+
+        assertThat(json).isEqualTo("{\"size\":1,\"track_total_hits\":1,\"query\":{\"bool\":{\"filter\":["
+                + "{\"term\":{\"data.appeal.appellant.identity.nino.keyword\":{\"value\":\"AB123456C\"}}},"
+                + "{\"term\":{\"data.appeal.benefitType.code.keyword\":{\"value\":\"PIP\"}}},"
+                + "{\"term\":{\"data.appeal.mrnDetails.mrnDate\":{\"value\":\"2018-01-01\"}}}],"
+                + "\"must_not\":[{\"terms\":{\"state\":[\"draft\",\"draftArchived\"]}}]}}}");
+    }
+
+    @Test
+    void findCcdCaseByNinoAndBenefitTypeAndMrnDateFilterNormalisesTheNinoAndBenefitCode() {
+        assertThat(SscsQueries.findCcdCaseByNinoAndBenefitTypeAndMrnDateFilter(" ab 12 34 56 c ", "pip ", "2018-01-01").toJson())
+                .isEqualTo(SscsQueries.findCcdCaseByNinoAndBenefitTypeAndMrnDateFilter("AB123456C", "PIP", "2018-01-01").toJson());
+    }
+
+    private static void assertPartOf(CcdQuery.Search query, SearchSourceBuilder elasticsearchQuery) throws Exception {
+        JsonNode expected = MAPPER.readTree(elasticsearchQuery.toString());
+        JsonNode actual = MAPPER.readTree(query.toJson());
+        assertPartOf(actual, expected, "");
+    }
+
+    private static void assertPartOf(JsonNode actual, JsonNode expected, String path) {
+        if (actual.isObject()) {
+            assertThat(expected.isObject()).as(path).isTrue();
+            Iterator<String> fieldNames = actual.fieldNames();
+            while (fieldNames.hasNext()) {
+                String fieldName = fieldNames.next();
+                assertThat(expected.has(fieldName)).as(path + "/" + fieldName).isTrue();
+                assertPartOf(actual.get(fieldName), expected.get(fieldName), path + "/" + fieldName);
+            }
+        } else if (actual.isArray()) {
+            assertThat(expected.size()).as(path).isEqualTo(actual.size());
+            for (int i = 0; i < actual.size(); i++) {
+                assertPartOf(actual.get(i), expected.get(i), path + "/" + i);
+            }
+        } else {
+            assertThat(actual).as(path).isEqualTo(expected);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.sscs.ccd.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static uk.gov.hmcts.reform.sscs.ccd.service.SscsQueryBuilder.*;
 
+import java.util.List;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.MatchQueryBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
@@ -92,4 +93,15 @@ public class SscsQueryBuilderTest {
         assertEquals("last_state_modified_date", ((MatchQueryBuilder) ((BoolQueryBuilder) result.query()).must().get(2)).fieldName());
         assertEquals("2020-10-10", ((MatchQueryBuilder) ((BoolQueryBuilder) result.query()).must().get(2)).value());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void givenCaseDataFields_thenProjectSourceToThoseFieldsAndCaseMetadata() {
+        SearchSourceBuilder result = withCaseDataProjection(findCaseBySingleField("data.caseReference", "123"),
+                List.of("appeal.appellant.identity.nino", "data.subscriptions"));
+
+        assertArrayEquals(new String[] {"reference", "jurisdiction", "case_type_id", "state", "created_date",
+            "last_modified", "security_classification", "data.appeal.appellant.identity.nino", "data.subscriptions"},
+                result.fetchSource().includes());
+        assertEquals(0, result.fetchSource().excludes().length);
+    }
+}
@@ -1,16 +1,28 @@
 package uk.gov.hmcts.reform.sscs.ccd.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.hmcts.reform.sscs.ccd.domain.EventType.POST_HEARING_REQUEST;
 import static uk.gov.hmcts.reform.sscs.ccd.domain.YesNo.NO;
 import static uk.gov.hmcts.reform.sscs.ccd.domain.YesNo.YES;
 
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.UnaryOperator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,11 +30,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 import uk.gov.hmcts.reform.sscs.ccd.client.CcdClient;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.exception.CaseModifiedConcurrentlyException;
 import uk.gov.hmcts.reform.sscs.idam.IdamService;
 import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
 
@@ -35,6 +51,14 @@ public class UpdateCcdCaseServiceTest {
     private SscsCcdConvertService sscsCcdConvertService;
     @Mock
     private CcdClient ccdClient;
+    @Mock
+    private ReadCcdCaseService readCcdCaseService;
+    @Spy
+    private CcdUpdateExecutor ccdUpdateExecutor = new CcdUpdateExecutor();
+    @Spy
+    private CaseDataDeltaService caseDataDeltaService = new CaseDataDeltaService();
+    @Spy
+    private SscsCaseDetailsCache sscsCaseDetailsCache = SscsCaseDetailsCache.disabled();
 
     @Captor
     private ArgumentCaptor<SscsCaseData>  sscsCaseDataArgumentCaptor;
@@ -170,6 +194,37 @@ public class UpdateCcdCaseServiceTest {
                 .isEqualTo(benefitCode);
     }
 
+    @Test
+    void handleUpdateCaseV2SubmittingOnlyChangedFieldsInDeltaMode() {
+        ReflectionTestUtils.setField(caseDataDeltaService, "enabled", true);
+        when(ccdClient.startEvent(isA(IdamTokens.class), anyLong(), eq(POST_HEARING_REQUEST.getType())))
+                .thenReturn(StartEventResponse.builder().build());
+        when(sscsCcdConvertService.getCaseDetails(isA(StartEventResponse.class)))
+                .thenReturn(SscsCaseDetails.builder()
+                        .data(SscsCaseData.builder()
+                                .addDocuments(NO)
+                                .caseCode("002DD")
+                                .benefitCode("002")
+                                .build())
+                        .build());
+
+        updateCcdCaseService.updateCaseV2(
+                1234L,
+                POST_HEARING_REQUEST.getType(),
+                IdamTokens.builder().build(),
+                sscsCaseDetails -> {
+                    sscsCaseDetails.getData().setAddDocuments(YES);
+                    sscsCaseDetails.getData().setBenefitCode(null);
+                    return new UpdateCcdCaseService.UpdateResult("summary", "description");
+                });
+
+        Map<String, Object> changedFields = new HashMap<>();
+        changedFields.put("addDocuments", "Yes");
+        changedFields.put("benefitCode", null);
+        verify(sscsCcdConvertService).getCaseDataDeltaContent(eq(changedFields), any(), eq("summary"), eq("description"));
+        verify(sscsCcdConvertService, never()).getCaseDataContent(any(SscsCaseData.class), any(), any(), any());
+    }
+
     @Test
     void handleUpdateCaseV2WithUpdateResultSetWithNullSccsCaseDetails() {
         long caseId = 1234L;
@@ -210,4 +265,150 @@ public class UpdateCcdCaseServiceTest {
         assertThat(sscsCaseData.getBenefitCode())
                 .isEqualTo(benefitCode);
     }
+
+    @Test
+    void handleUpdateCaseV2DynamicEventWithoutConvertingTheStartEventCase() {
+        long caseId = 1234L;
+        LocalDateTime lastModified = LocalDateTime.of(2024, 5, 1, 9, 30);
+        IdamTokens idamTokens = IdamTokens.builder().build();
+        StartEventResponse startEventResponse = StartEventResponse.builder()
+                .token("token")
+                .caseDetails(CaseDetails.builder().id(caseId).lastModified(lastModified).build())
+                .build();
+        when(readCcdCaseService.getByCaseId(caseId, idamTokens))
+                .thenReturn(SscsCaseDetails.builder().lastModified(lastModified).data(SscsCaseData.builder().build()).build());
+        when(ccdClient.startEventMetadata(idamTokens, caseId, POST_HEARING_REQUEST.getType())).thenReturn(startEventResponse);
+        CaseDetails submitted = CaseDetails.builder().id(caseId).build();
+        when(ccdClient.submitEventForCaseworker(eq(idamTokens), eq(caseId), any())).thenReturn(submitted);
+        when(sscsCcdConvertService.getCaseDetails(submitted)).thenReturn(SscsCaseDetails.builder().id(caseId).build());
+
+        Optional<SscsCaseDetails> result = updateCcdCaseService.updateCaseV2DynamicEvent(caseId, idamTokens, sscsCaseDetails ->
+                new UpdateCcdCaseService.DynamicEventUpdateResult("summary", "description", true, POST_HEARING_REQUEST.getType()));
+
+        assertThat(result).isPresent();
+        verify(sscsCcdConvertService).getCaseDataContent(isA(SscsCaseData.class), eq(startEventResponse), eq("summary"), eq("description"));
+        verify(sscsCcdConvertService, never()).getCaseDetails(isA(StartEventResponse.class));
+        verify(ccdClient, never()).startEvent(any(), anyLong(), any());
+    }
+
+    @Test
+    void handleUpdateCaseV2DynamicEventWithOneFetchWhenTheProvisionalEventIsChosen() {
+        long caseId = 1234L;
+        IdamTokens idamTokens = IdamTokens.builder().build();
+        StartEventResponse startEventResponse = StartEventResponse.builder().token("token").eventId(POST_HEARING_REQUEST.getType())
+                .caseDetails(CaseDetails.builder().id(caseId).build())
+                .build();
+        SscsCaseDetails caseDetails = SscsCaseDetails.builder().id(caseId).eventToken("token").eventId(POST_HEARING_REQUEST.getType())
+                .data(SscsCaseData.builder().build()).build();
+        when(ccdClient.startEvent(idamTokens, caseId, POST_HEARING_REQUEST.getType())).thenReturn(startEventResponse);
+        when(sscsCcdConvertService.getCaseDetails(startEventResponse)).thenReturn(caseDetails);
+        CaseDetails submitted = CaseDetails.builder().id(caseId).build();
+        when(ccdClient.submitEventForCaseworker(eq(idamTokens), eq(caseId), any())).thenReturn(submitted);
+        when(sscsCcdConvertService.getCaseDetails(submitted)).thenReturn(SscsCaseDetails.builder().id(caseId).build());
+
+        Optional<SscsCaseDetails> result = updateCcdCaseService.updateCaseV2DynamicEvent(caseId, POST_HEARING_REQUEST.getType(), idamTokens,
+                sscsCaseDetails -> new UpdateCcdCaseService.DynamicEventUpdateResult("summary", "description", true, POST_HEARING_REQUEST.getType()));
+
+        assertThat(result).isPresent();
+        verify(sscsCcdConvertService).getCaseDataContent(eq("token"), eq(POST_HEARING_REQUEST.getType()), eq(caseDetails.getData()),
+                eq("summary"), eq("description"));
+        verify(readCcdCaseService, never()).getByCaseId(anyLong(), any());
+        verify(ccdClient, never()).startEventMetadata(any(), anyLong(), any());
+    }
+
+    @Test
+    void handleUpdateCaseV2DynamicEventByStartingTheChosenEventWhenItIsNotTheProvisionalOne() {
+        long caseId = 1234L;
+        LocalDateTime lastModified = LocalDateTime.of(2024, 5, 1, 9, 30);
+        IdamTokens idamTokens = IdamTokens.builder().build();
+        StartEventResponse provisional = StartEventResponse.builder().token("provisional").build();
+        when(ccdClient.startEvent(idamTokens, caseId, "updateCaseOnly")).thenReturn(provisional);
+        when(sscsCcdConvertService.getCaseDetails(provisional)).thenReturn(SscsCaseDetails.builder().id(caseId)
+                .lastModified(lastModified).data(SscsCaseData.builder().build()).build());
+        StartEventResponse chosen = StartEventResponse.builder()
+                .token("chosen")
+                .caseDetails(CaseDetails.builder().id(caseId).lastModified(lastModified).build())
+                .build();
+        when(ccdClient.startEventMetadata(idamTokens, caseId, POST_HEARING_REQUEST.getType())).thenReturn(chosen);
+        CaseDetails submitted = CaseDetails.builder().id(caseId).build();
+        when(ccdClient.submitEventForCaseworker(eq(idamTokens), eq(caseId), any())).thenReturn(submitted);
+        when(sscsCcdConvertService.getCaseDetails(submitted)).thenReturn(SscsCaseDetails.builder().id(caseId).build());
+
+        Optional<SscsCaseDetails> result = updateCcdCaseService.updateCaseV2DynamicEvent(caseId, "updateCaseOnly", idamTokens,
+                sscsCaseDetails -> new UpdateCcdCaseService.DynamicEventUpdateResult("summary", "description", true, POST_HEARING_REQUEST.getType()));
+
+        assertThat(result).isPresent();
+        verify(sscsCcdConvertService).getCaseDataContent(isA(SscsCaseData.class), eq(chosen), eq("summary"), eq("description"));
+        verify(readCcdCaseService, never()).getByCaseId(anyLong(), any());
+    }
+
+    @Test
+    void handleUpdateCaseV2DynamicEventWhenCaseModifiedBeforeEventStarted() {
+        ReflectionTestUtils.setField(ccdUpdateExecutor, "initialBackoffMillis", 0L);
+        long caseId = 1234L;
+        LocalDateTime lastModified = LocalDateTime.of(2024, 5, 1, 9, 30);
+        IdamTokens idamTokens = IdamTokens.builder().build();
+        when(readCcdCaseService.getByCaseId(caseId, idamTokens))
+                .thenReturn(SscsCaseDetails.builder().lastModified(lastModified).data(SscsCaseData.builder().build()).build());
+        when(ccdClient.startEventMetadata(idamTokens, caseId, POST_HEARING_REQUEST.getType()))
+                .thenReturn(StartEventResponse.builder()
+                        .caseDetails(CaseDetails.builder().lastModified(lastModified.plusSeconds(1)).build())
+                        .build());
+
+        assertThatThrownBy(() -> updateCcdCaseService.updateCaseV2DynamicEvent(caseId, idamTokens, sscsCaseDetails ->
+                new UpdateCcdCaseService.DynamicEventUpdateResult("summary", "description", true, POST_HEARING_REQUEST.getType())))
+                .isInstanceOf(CaseModifiedConcurrentlyException.class);
+        verify(readCcdCaseService, times(5)).getByCaseId(caseId, idamTokens);
+        verify(ccdClient, never()).submitEventForCaseworker(any(), anyLong(), any());
+    }
+
+    @Test
+    void countsAConflictingDynamicEventSubmitUnderTheEventTypeItChose() {
+        ReflectionTestUtils.setField(ccdUpdateExecutor, "initialBackoffMillis", 0L);
+        long caseId = 1234L;
+        LocalDateTime lastModified = LocalDateTime.of(2024, 5, 1, 9, 30);
+        IdamTokens idamTokens = IdamTokens.builder().build();
+        when(readCcdCaseService.getByCaseId(caseId, idamTokens))
+                .thenReturn(SscsCaseDetails.builder().lastModified(lastModified).data(SscsCaseData.builder().build()).build());
+        when(ccdClient.startEventMetadata(idamTokens, caseId, POST_HEARING_REQUEST.getType()))
+                .thenReturn(StartEventResponse.builder()
+                        .token("token")
+                        .caseDetails(CaseDetails.builder().id(caseId).lastModified(lastModified).build())
+                        .build());
+        FeignException conflict = feignException(409);
+        when(ccdClient.submitEventForCaseworker(eq(idamTokens), eq(caseId), any())).thenThrow(conflict);
+
+        assertThatThrownBy(() -> updateCcdCaseService.updateCaseV2DynamicEvent(caseId, idamTokens, sscsCaseDetails ->
+                new UpdateCcdCaseService.DynamicEventUpdateResult("summary", "description", true, POST_HEARING_REQUEST.getType())))
+                .isInstanceOf(CaseModifiedConcurrentlyException.class)
+                .hasCause(conflict);
+
+        MeterRegistry meterRegistry = (MeterRegistry) ReflectionTestUtils.getField(ccdUpdateExecutor, "meterRegistry");
+        assertThat(meterRegistry.get(CcdUpdateExecutor.CONFLICTS_METRIC)
+                .tag("eventType", POST_HEARING_REQUEST.getType()).counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.find(CcdUpdateExecutor.CONFLICTS_METRIC).tag("eventType", "dynamicEvent").counter()).isNull();
+    }
+
+    @Test
+    void recoversWithFreshIdamTokensOnlyWhenCcdRejectedTheCachedOnes() {
+        IdamTokens idamTokens = IdamTokens.builder().build();
+        when(idamService.getIdamTokens()).thenReturn(idamTokens);
+        SscsCaseData caseData = SscsCaseData.builder().build();
+
+        updateCcdCaseService.recover(feignException(500), caseData, 1234L, "updateCaseOnly", "summary", "description", idamTokens);
+        verify(idamService, never()).invalidateTokens();
+
+        updateCcdCaseService.recover(feignException(401), caseData, 1234L, "updateCaseOnly", "summary", "description", idamTokens);
+        verify(idamService).invalidateTokens();
+        verify(ccdClient, times(2)).submitEventForCaseworker(eq(idamTokens), eq(1234L), any());
+    }
+
+    private static FeignException feignException(int status) {
+        return FeignException.errorStatus("submitEventForCaseWorker", Response.builder()
+                .status(status)
+                .reason("status " + status)
+                .request(Request.create(Request.HttpMethod.POST, "/cases", Map.of(), null, StandardCharsets.UTF_8, null))
+                .headers(Map.of())
+                .build());
+    }
 }
@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.sscs.idam;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.StringContains.containsString;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.atMostOnce;
@@ -13,8 +14,20 @@ import static org.mockito.Mockito.when;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.LoggingEvent;
 import ch.qos.logback.core.Appender;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -147,4 +160,138 @@ public class IdamServiceTest {
         verify(idamClient, atMostOnce()).getAccessToken("email", "pass");
 
     }
+
+    @Test
+    public void shouldRequestNewTokenOnceCachedTokenHasExpired() {
+        Instant now = Instant.parse("2024-01-01T10:00:00Z");
+        setClock(now);
+        String token = jwtExpiringAt(now.plus(Duration.ofMinutes(30)));
+        when(idamClient.getAccessToken("email", "pass")).thenReturn(token);
+        given(idamClient.getUserInfo(any())).willReturn(userInfo());
+
+        idamService.getIdamTokens();
+        setClock(now.plus(Duration.ofMinutes(29)));
+        idamService.getIdamTokens();
+        verify(idamClient, times(1)).getAccessToken("email", "pass");
+
+        setClock(now.plus(Duration.ofMinutes(31)));
+        idamService.getIdamTokens();
+        verify(idamClient, times(2)).getAccessToken("email", "pass");
+    }
+
+    @Test
+    public void shouldRefreshTokenInBackgroundAheadOfExpiry() {
+        Instant now = Instant.parse("2024-01-01T10:00:00Z");
+        setClock(now);
+        ReflectionTestUtils.setField(idamService, "refreshExecutor", (Executor) Runnable::run);
+        String expiringToken = jwtExpiringAt(now.plus(Duration.ofMinutes(2)));
+        String refreshedToken = jwtExpiringAt(now.plus(Duration.ofHours(8)));
+        when(idamClient.getAccessToken("email", "pass")).thenReturn(expiringToken, refreshedToken);
+        given(idamClient.getUserInfo(any())).willReturn(userInfo());
+
+        assertThat(idamService.getIdamTokens().getIdamOauth2Token(), is(expiringToken));
+        assertThat(idamService.getIdamTokens().getIdamOauth2Token(), is(expiringToken));
+        assertThat(idamService.getIdamTokens().getIdamOauth2Token(), is(refreshedToken));
+
+        verify(idamClient, times(2)).getAccessToken("email", "pass");
+    }
+
+    @Test
+    public void shouldRequestTokenOnceWhenConcurrentCallersMiss() throws Exception {
+        when(idamClient.getAccessToken("email", "pass")).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return "Bearer " + authToken.getAccessToken();
+        });
+        given(idamClient.getUserInfo(any())).willReturn(userInfo());
+
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<IdamTokens>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return idamService.getIdamTokens();
+                }));
+            }
+            start.countDown();
+            for (Future<IdamTokens> result : results) {
+                assertThat(result.get().getIdamOauth2Token(), is("Bearer access"));
+            }
+        }
+
+        verify(idamClient, times(1)).getAccessToken("email", "pass");
+    }
+
+    @Test
+    public void shouldReuseResolvedTokensUntilServiceAuthorizationExpires() {
+        Instant now = Instant.parse("2024-01-01T10:00:00Z");
+        setClock(now);
+        when(idamClient.getAccessToken("email", "pass")).thenReturn(jwtExpiringAt(now.plus(Duration.ofHours(8))));
+        given(idamClient.getUserInfo(any())).willReturn(userInfo());
+        when(authTokenGenerator.generate()).thenReturn(
+                jwtExpiringAt(now.plus(Duration.ofMinutes(30))), jwtExpiringAt(now.plus(Duration.ofHours(3))));
+
+        IdamTokens first = idamService.getIdamTokens();
+        setClock(now.plus(Duration.ofMinutes(20)));
+        IdamTokens second = idamService.getIdamTokens();
+        assertThat(second.getServiceAuthorization(), is(first.getServiceAuthorization()));
+        verify(authTokenGenerator, times(1)).generate();
+
+        setClock(now.plus(Duration.ofMinutes(29)));
+        IdamTokens third = idamService.getIdamTokens();
+        assertThat(third.getServiceAuthorization().equals(first.getServiceAuthorization()), is(false));
+        assertThat(third.getUserId(), is("16"));
+
+        verify(authTokenGenerator, times(2)).generate();
+        verify(idamClient, times(1)).getUserInfo(any());
+    }
+
+    @Test
+    public void shouldReturnCopiesOfResolvedTokens() {
+        when(idamClient.getAccessToken("email", "pass")).thenReturn("Bearer " + authToken.getAccessToken());
+        given(idamClient.getUserInfo(any())).willReturn(
+                new UserInfo("16", "16", "dummy@email.com", "Peter", "Pan", new ArrayList<>(List.of("caseworker"))));
+
+        IdamTokens first = idamService.getIdamTokens();
+        first.setIdamOauth2Token("changed");
+        first.getRoles().clear();
+
+        IdamTokens second = idamService.getIdamTokens();
+        assertThat(second.getIdamOauth2Token(), is("Bearer access"));
+        assertThat(second.getRoles(), is(List.of("caseworker")));
+        verify(idamClient, times(1)).getUserInfo(any());
+    }
+
+    @Test
+    public void shouldGetNewTokensAfterTheyAreInvalidated() {
+        when(idamClient.getAccessToken("email", "pass")).thenReturn("Bearer rejected", "Bearer fresh");
+        given(idamClient.getUserInfo(any())).willReturn(userInfo());
+        when(authTokenGenerator.generate()).thenReturn("rejected-s2s", "fresh-s2s");
+
+        IdamTokens rejected = idamService.getIdamTokens();
+        idamService.invalidateTokens();
+        IdamTokens fresh = idamService.getIdamTokens();
+
+        assertThat(rejected.getIdamOauth2Token(), is("Bearer rejected"));
+        assertThat(fresh.getIdamOauth2Token(), is("Bearer fresh"));
+        assertThat(fresh.getServiceAuthorization(), is("fresh-s2s"));
+        verify(idamClient, times(2)).getAccessToken("email", "pass");
+        verify(authTokenGenerator, times(2)).generate();
+    }
+
+    private void setClock(Instant instant) {
+        ReflectionTestUtils.setField(idamService, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    private static String jwtExpiringAt(Instant expiry) {
+        return "Bearer " + new PlainJWT(new JWTClaimsSet.Builder()
+                .subject("sscs")
+                .expirationTime(Date.from(expiry))
+                .build()).serialize();
+    }
+
+    private static UserInfo userInfo() {
+        return new UserInfo("16", "16", "dummy@email.com", "Peter", "Pan", new ArrayList<>());
+    }
 }
@@ -0,0 +1,107 @@
+package uk.gov.hmcts.reform.sscs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import uk.gov.hmcts.reform.sscs.client.CommonReferenceDataApi;
+import uk.gov.hmcts.reform.sscs.idam.IdamService;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+import uk.gov.hmcts.reform.sscs.model.CaseFlag;
+import uk.gov.hmcts.reform.sscs.model.Categories;
+import uk.gov.hmcts.reform.sscs.model.Category;
+import uk.gov.hmcts.reform.sscs.model.CategoryRequest;
+import uk.gov.hmcts.reform.sscs.model.Flag;
+import uk.gov.hmcts.reform.sscs.model.FlagDetail;
+
+@ExtendWith(MockitoExtension.class)
+class CommonRefDataServiceTest {
+
+    private static final String SERVICE_ID = "BBA3";
+
+    @Mock
+    private CommonReferenceDataApi commonReferenceDataApi;
+    @Mock
+    private IdamService idamService;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+
+    private CommonRefDataService commonRefDataService;
+
+    @BeforeEach
+    void setUp() {
+        commonRefDataService = new CommonRefDataService(commonReferenceDataApi, idamService,
+                Duration.ofMinutes(60), Duration.ofMinutes(1440), ticker, Runnable::run);
+        when(idamService.getIdamTokens())
+                .thenReturn(IdamTokens.builder().idamOauth2Token("auth2").serviceAuthorization("s2s").build());
+    }
+
+    @Test
+    void cachesCategoriesAndIndexesNestedKeys() {
+        Category child = Category.builder().categoryKey("HearingChannel").key("INTER").valueEn("In Person").build();
+        Category parent = Category.builder().categoryKey("HearingChannel").key("TEL").valueEn("Telephone")
+                .childNodes(List.of(child)).build();
+        when(commonReferenceDataApi.retrieveListOfValuesByCategoryId(any(), any(), any(), any()))
+                .thenReturn(ResponseEntity.ok(new Categories(List.of(parent))));
+
+        CategoryRequest request = CategoryRequest.builder().categoryId("HearingChannel").serviceId(SERVICE_ID).build();
+        assertThat(commonRefDataService.getCategories(request)).containsExactly(parent);
+        Optional<Category> category = commonRefDataService.getCategory(
+                CategoryRequest.builder().categoryId("HearingChannel").serviceId(SERVICE_ID).build(), "INTER");
+
+        assertThat(category).contains(child);
+        verify(commonReferenceDataApi, times(1)).retrieveListOfValuesByCategoryId(any(), any(), any(), any());
+    }
+
+    @Test
+    void cachesCaseFlagsPerRequestAndIndexesFlagCodes() {
+        FlagDetail interpreter = FlagDetail.builder().flagCode("PF0015").name("Language Interpreter").build();
+        FlagDetail partyFlags = FlagDetail.builder().flagCode("PARTY").name("Party").parent(true)
+                .childFlags(List.of(interpreter)).build();
+        when(commonReferenceDataApi.retrieveCaseFlagsByServiceId("auth2", "s2s", SERVICE_ID, "PARTY", "N"))
+                .thenReturn(ResponseEntity.ok(new CaseFlag(List.of(new Flag(List.of(partyFlags))))));
+
+        assertThat(commonRefDataService.getFlagDetail(SERVICE_ID, "PARTY", "N", "PF0015")).contains(interpreter);
+        assertThat(commonRefDataService.getFlagDetail(SERVICE_ID, "PARTY", "N", "UNKNOWN")).isEmpty();
+        assertThat(commonRefDataService.getCaseFlags(SERVICE_ID, "PARTY", "N").getFlags()).hasSize(1);
+
+        verify(commonReferenceDataApi, times(1)).retrieveCaseFlagsByServiceId(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void keepsServingCachedCaseFlagsWhenRefreshFails() {
+        FlagDetail interpreter = FlagDetail.builder().flagCode("PF0015").name("Language Interpreter").build();
+        FlagDetail renamed = FlagDetail.builder().flagCode("PF0015").name("Interpreter").build();
+        when(commonReferenceDataApi.retrieveCaseFlagsByServiceId("auth2", "s2s", SERVICE_ID, null, null))
+                .thenReturn(ResponseEntity.ok(new CaseFlag(List.of(new Flag(List.of(interpreter))))))
+                .thenThrow(new RuntimeException("common ref data unavailable"))
+                .thenReturn(ResponseEntity.ok(new CaseFlag(List.of(new Flag(List.of(renamed))))));
+
+        assertThat(commonRefDataService.getFlagDetail(SERVICE_ID, null, null, "PF0015")).contains(interpreter);
+        nanos.addAndGet(Duration.ofMinutes(61).toNanos());
+
+        assertThat(commonRefDataService.getFlagDetail(SERVICE_ID, null, null, "PF0015")).contains(interpreter);
+        assertThat(commonRefDataService.getFlagDetail(SERVICE_ID, null, null, "PF0015")).contains(renamed);
+        verify(commonReferenceDataApi, times(3)).retrieveCaseFlagsByServiceId(any(), any(), any(), any(), any());
+    }
+}
@@ -1,6 +1,12 @@
 package uk.gov.hmcts.reform.sscs.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
@@ -10,6 +16,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.hmcts.reform.sscs.client.JudicialRefDataApi;
@@ -17,6 +24,7 @@ import uk.gov.hmcts.reform.sscs.idam.IdamService;
 import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
 import uk.gov.hmcts.reform.sscs.model.client.JudicialRefDataUsersRequest;
 import uk.gov.hmcts.reform.sscs.model.client.JudicialUser;
+import uk.gov.hmcts.reform.sscs.model.client.JudicialUserBase;
 
 @ExtendWith(MockitoExtension.class)
 public class JudicialRefDataServiceTest {
@@ -25,6 +33,9 @@ public class JudicialRefDataServiceTest {
     @Mock
     private JudicialRefDataApi judicialRefDataApi;
 
+    @Spy
+    private JudicialUserCache judicialUserCache = new JudicialUserCache();
+
     @InjectMocks
     private JudicialRefDataService judicialRefDataService;
 
@@ -119,4 +130,115 @@ public class JudicialRefDataServiceTest {
 
         assertEquals(judicialUserCode.getPersonalCode(), result);
     }
+
+    @Test
+    void getAllJudicialUsersFullNamesInOneRequestInPanelOrder() {
+        ReflectionTestUtils.setField(judicialRefDataService, "elinksV2Feature", true);
+        when(idamService.getIdamTokens()).thenReturn(idamTokens);
+        when(judicialRefDataApi.getJudicialUsersV2(idamTokens.getIdamOauth2Token(), idamTokens.getServiceAuthorization(),
+                JudicialRefDataUsersRequest.builder().personalCodes(List.of("1", "2", "3")).build()))
+                .thenReturn(List.of(judge("3", "Mr Fitz-William Darcy", "Mr", "Darcy"),
+                        judge("1", "Dr Verity Gill Bloggs", "Dr", "Bloggs"),
+                        judge("2", "Ms Ali Hazelwood", "Ms", "Hazelwood")));
+
+        List<String> result = judicialRefDataService.getAllJudicialUsersFullNames(List.of(
+                new JudicialUserBase("a", "1"), new JudicialUserBase("b", "2"),
+                new JudicialUserBase("c", null), new JudicialUserBase("d", "3")));
+
+        assertEquals(List.of("Dr V G Bloggs", "Ms A Hazelwood", "Mr F Darcy"), result);
+    }
+
+    @Test
+    void getAllJudicialUsersFullNamesInParallelBatches() {
+        ReflectionTestUtils.setField(judicialRefDataService, "elinksV2Feature", false);
+        ReflectionTestUtils.setField(judicialRefDataService, "batchSize", 2);
+        ReflectionTestUtils.setField(judicialRefDataService, "parallelBatches", true);
+        when(idamService.getIdamTokens()).thenReturn(idamTokens);
+        when(judicialRefDataApi.getJudicialUsers(idamTokens.getIdamOauth2Token(), idamTokens.getServiceAuthorization(),
+                JudicialRefDataUsersRequest.builder().personalCodes(List.of("3", "2")).build()))
+                .thenReturn(List.of(judge("3", "Mr Fitz-William Darcy", "Mr", "Darcy"),
+                        judge("2", "Ms Ali Hazelwood", "Ms", "Hazelwood")));
+        when(judicialRefDataApi.getJudicialUsers(idamTokens.getIdamOauth2Token(), idamTokens.getServiceAuthorization(),
+                JudicialRefDataUsersRequest.builder().personalCodes(List.of("1")).build()))
+                .thenReturn(List.of(judge("1", "Dr Verity Gill Bloggs", "Dr", "Bloggs")));
+
+        List<String> result = judicialRefDataService.getAllJudicialUsersFullNames(List.of(
+                new JudicialUserBase("a", "3"), new JudicialUserBase("b", "2"), new JudicialUserBase("c", "1")));
+
+        assertEquals(List.of("Mr F Darcy", "Ms A Hazelwood", "Dr V G Bloggs"), result);
+        verify(idamService, times(1)).getIdamTokens();
+    }
+
+    @Test
+    void getAllJudicialUsersFullNamesFailsForAnUnknownPanelMember() {
+        ReflectionTestUtils.setField(judicialRefDataService, "elinksV2Feature", true);
+        when(idamService.getIdamTokens()).thenReturn(idamTokens);
+        when(judicialRefDataApi.getJudicialUsersV2(idamTokens.getIdamOauth2Token(), idamTokens.getServiceAuthorization(),
+                JudicialRefDataUsersRequest.builder().personalCodes(List.of("1", "2")).build()))
+                .thenReturn(List.of(judge("1", "Dr Verity Gill Bloggs", "Dr", "Bloggs")));
+
+        List<JudicialUserBase> panel = List.of(new JudicialUserBase("a", "1"), new JudicialUserBase("b", "2"));
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> judicialRefDataService.getAllJudicialUsersFullNames(panel));
+
+        assertEquals("No Judicial User found with personal code 2", exception.getMessage());
+    }
+
+    @Test
+    void cachesJudicialUsersByPersonalCodeAndIdamId() {
+        ReflectionTestUtils.setField(judicialRefDataService, "elinksV2Feature", true);
+        JudicialUser judicialUser = judge(PERSONAL_CODE, "Dr Verity Gill Bloggs", "Dr", "Bloggs");
+        judicialUser.setSidamId(idamId);
+        when(idamService.getIdamTokens()).thenReturn(idamTokens);
+        when(judicialRefDataApi.getJudicialUsersV2(idamTokens.getIdamOauth2Token(),
+                idamTokens.getServiceAuthorization(), judicialRefDataUsersRequestCode)).thenReturn(List.of(judicialUser));
+
+        assertEquals("Dr V G Bloggs", judicialRefDataService.getJudicialUserDisplayName(PERSONAL_CODE));
+        assertEquals("Dr V G Bloggs", judicialRefDataService.getJudicialUserDisplayName(PERSONAL_CODE));
+        assertEquals(PERSONAL_CODE, judicialRefDataService.getPersonalCode(idamId));
+        assertEquals(List.of("Dr V G Bloggs"),
+                judicialRefDataService.getAllJudicialUsersFullNames(List.of(new JudicialUserBase(idamId, PERSONAL_CODE))));
+
+        verify(judicialRefDataApi, times(1)).getJudicialUsersV2(any(), any(), any());
+        verify(idamService, times(1)).getIdamTokens();
+    }
+
+    @Test
+    void cachesUnknownJudicialUsers() {
+        ReflectionTestUtils.setField(judicialRefDataService, "elinksV2Feature", false);
+        when(idamService.getIdamTokens()).thenReturn(idamTokens);
+        when(judicialRefDataApi.getJudicialUsers(idamTokens.getIdamOauth2Token(),
+                idamTokens.getServiceAuthorization(), judicialRefDataUsersRequestIdam)).thenReturn(List.of());
+
+        assertNull(judicialRefDataService.getJudicialUserFromIdamId(idamId));
+        assertNull(judicialRefDataService.getJudicialUserFromIdamId(idamId));
+
+        verify(judicialRefDataApi, times(1)).getJudicialUsers(any(), any(), any());
+    }
+
+    @Test
+    void warmUpLoadsJudicialUsersInOneRequest() {
+        ReflectionTestUtils.setField(judicialRefDataService, "elinksV2Feature", true);
+        when(idamService.getIdamTokens()).thenReturn(idamTokens);
+        when(judicialRefDataApi.getJudicialUsersV2(idamTokens.getIdamOauth2Token(), idamTokens.getServiceAuthorization(),
+                JudicialRefDataUsersRequest.builder().personalCodes(List.of("1", "2")).build()))
+                .thenReturn(List.of(judge("1", "Dr Verity Gill Bloggs", "Dr", "Bloggs"),
+                        judge("2", "Ms Ali Hazelwood", "Ms", "Hazelwood")));
+
+        judicialRefDataService.warmUp(List.of("1", "2", "1", " "));
+        assertEquals("Ms A Hazelwood", judicialRefDataService.getJudicialUserDisplayName("2"));
+        assertEquals("1", judicialRefDataService.getJudicialUserFromPersonalCode("1").getPersonalCode());
+
+        verify(judicialRefDataApi, times(1)).getJudicialUsersV2(any(), any(), any());
+        verify(judicialRefDataApi, never()).getJudicialUsers(any(), any(), any());
+    }
+
+    private static JudicialUser judge(String personalCode, String fullName, String title, String surname) {
+        return JudicialUser.builder()
+                .personalCode(personalCode)
+                .fullName(fullName)
+                .title(title)
+                .surname(surname)
+                .build();
+    }
 }
@@ -2,18 +2,30 @@ package uk.gov.hmcts.reform.sscs.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.hmcts.reform.sscs.client.RefDataApi;
 import uk.gov.hmcts.reform.sscs.idam.IdamService;
 import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
 import uk.gov.hmcts.reform.sscs.model.CourtVenue;
+import uk.gov.hmcts.reform.sscs.model.VenueDetails;
 
 @ExtendWith(MockitoExtension.class)
 public class RefDataServiceTest {
@@ -26,6 +38,11 @@ public class RefDataServiceTest {
     @Mock
     private RefDataApi refDataApi;
 
+    @Mock
+    private VenueDataLoader venueDataLoader;
+    @Spy
+    private CourtVenueCache courtVenueCache = new CourtVenueCache();
+
     @InjectMocks
     RefDataService refDataService;
 
@@ -107,4 +124,72 @@ public class RefDataServiceTest {
                 .isInstanceOfAny(IllegalStateException.class)
                 .hasMessageContaining("Exactly one SSCS court venue is required for epims ID: " + EPIMS_ID);
     }
+
+    @Test
+    public void getCourtVenueRefDataByEpimsIdFromCache() {
+        IdamTokens idamTokens = IdamTokens.builder().idamOauth2Token("auth2").serviceAuthorization("s2s").build();
+        when(idamService.getIdamTokens()).thenReturn(idamTokens);
+        when(refDataApi.courtVenueByEpimsId("auth2", "s2s", SSCS_SERVICE_CODE, EPIMS_ID))
+            .thenReturn(List.of(sscsVenue(EPIMS_ID, "sscs_venue_name")));
+
+        refDataService.getCourtVenueRefDataByEpimsId(EPIMS_ID);
+        CourtVenue venue = refDataService.getCourtVenueRefDataByEpimsId(EPIMS_ID);
+
+        assertThat(venue.getVenueName()).isEqualTo("sscs_venue_name");
+        verify(refDataApi, times(1)).courtVenueByEpimsId(any(), any(), any(), any());
+    }
+
+    @Test
+    public void getCourtVenueRefDataByEpimsIdKeepsStaleVenueWhenReloadFails() {
+        Instant now = Instant.parse("2024-01-01T10:00:00Z");
+        ReflectionTestUtils.setField(courtVenueCache, "clock", Clock.fixed(now, ZoneOffset.UTC));
+        ReflectionTestUtils.setField(courtVenueCache, "refreshExecutor", (Executor) Runnable::run);
+        IdamTokens idamTokens = IdamTokens.builder().idamOauth2Token("auth2").serviceAuthorization("s2s").build();
+        when(idamService.getIdamTokens()).thenReturn(idamTokens);
+        when(refDataApi.courtVenueByEpimsId("auth2", "s2s", SSCS_SERVICE_CODE, EPIMS_ID))
+            .thenReturn(List.of(sscsVenue(EPIMS_ID, "sscs_venue_name")))
+            .thenThrow(new RuntimeException("location ref data unavailable"))
+            .thenReturn(List.of(sscsVenue(EPIMS_ID, "renamed_venue")));
+
+        refDataService.getCourtVenueRefDataByEpimsId(EPIMS_ID);
+        ReflectionTestUtils.setField(courtVenueCache, "clock", Clock.fixed(now.plus(Duration.ofHours(2)), ZoneOffset.UTC));
+
+        assertThat(refDataService.getCourtVenueRefDataByEpimsId(EPIMS_ID).getVenueName()).isEqualTo("sscs_venue_name");
+        assertThat(refDataService.getCourtVenueRefDataByEpimsId(EPIMS_ID).getVenueName()).isEqualTo("sscs_venue_name");
+        assertThat(refDataService.getCourtVenueRefDataByEpimsId(EPIMS_ID).getVenueName()).isEqualTo("renamed_venue");
+        verify(refDataApi, times(3)).courtVenueByEpimsId(any(), any(), any(), any());
+    }
+
+    @Test
+    public void prefetchCourtVenuesLoadsActiveVenuesInBatches() {
+        ReflectionTestUtils.setField(refDataService, "prefetchBatchSize", 2);
+        IdamTokens idamTokens = IdamTokens.builder().idamOauth2Token("auth2").serviceAuthorization("s2s").build();
+        when(idamService.getIdamTokens()).thenReturn(idamTokens);
+        when(venueDataLoader.getActiveVenueDetailsMapByEpimsId()).thenReturn(Map.of(
+            "1", VenueDetails.builder().epimsId("1").build(),
+            "2", VenueDetails.builder().epimsId("2").build(),
+            "3", VenueDetails.builder().epimsId("3").build()));
+        when(refDataApi.courtVenueByEpimsId(any(), any(), any(), any())).thenAnswer(invocation -> {
+            String epimsIds = invocation.getArgument(3);
+            return List.of(epimsIds.split(",")).stream()
+                .map(epimsId -> sscsVenue(epimsId, "venue_" + epimsId))
+                .toList();
+        });
+
+        refDataService.prefetchCourtVenues();
+
+        assertThat(refDataService.getCourtVenueRefDataByEpimsId("1").getVenueName()).isEqualTo("venue_1");
+        assertThat(refDataService.getCourtVenueRefDataByEpimsId("2").getVenueName()).isEqualTo("venue_2");
+        assertThat(refDataService.getCourtVenueRefDataByEpimsId("3").getVenueName()).isEqualTo("venue_3");
+        verify(refDataApi, times(2)).courtVenueByEpimsId(any(), any(), any(), any());
+    }
+
+    private static CourtVenue sscsVenue(String epimsId, String venueName) {
+        return CourtVenue.builder()
+            .epimsId(epimsId)
+            .courtTypeId(SSCS_COURT_TYPE_ID)
+            .courtStatus("Open")
+            .venueName(venueName)
+            .build();
+    }
 }